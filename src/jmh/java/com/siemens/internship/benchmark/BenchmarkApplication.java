@@ -0,0 +1,52 @@
+package com.siemens.internship.benchmark;
+
+import com.siemens.internship.InternshipApplication;
+import com.siemens.internship.config.CacheConfig;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.stream.Stream;
+
+// Starts the application without the web layer against its own in-memory database, and seeds it with items
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    // The properties are passed as command line arguments, so they override application.properties
+    static ConfigurableApplicationContext start(String... properties) {
+        String[] args = Stream.concat(Stream.of("spring.datasource.url=jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN"), Stream.of(properties))
+                .map(property -> "--" + property)
+                .toArray(String[]::new);
+        return new SpringApplicationBuilder(InternshipApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(args);
+    }
+
+    // Replaces the content of the item table with count unprocessed items, using a single set-based insert
+    static void seed(ConfigurableApplicationContext context, int count) {
+        JdbcTemplate jdbc = context.getBean(JdbcTemplate.class);
+        jdbc.update("delete from item");
+        jdbc.update("insert into item (id, name, description, status, email, version, created_at, updated_at) " +
+                "select x, 'Item' || x, 'Description' || x, null, 'item' || x || '@example.com', 0, " +
+                "current_timestamp, current_timestamp " +
+                "from system_range(1, ?)", count);
+        // Leave room for the block of ids Hibernate already reserved from the pooled sequence
+        jdbc.execute("alter sequence item_seq restart with " + (count + 1000));
+        clearCache(context);
+    }
+
+    static void resetStatus(ConfigurableApplicationContext context) {
+        context.getBean(JdbcTemplate.class).update("update item set status = null");
+        clearCache(context);
+    }
+
+    static void clearCache(ConfigurableApplicationContext context) {
+        context.getBean(CacheManager.class).getCache(CacheConfig.ITEMS_CACHE).clear();
+    }
+}
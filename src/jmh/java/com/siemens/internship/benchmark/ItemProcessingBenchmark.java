@@ -0,0 +1,55 @@
+package com.siemens.internship.benchmark;
+
+import com.siemens.internship.dto.ProcessingSummary;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.service.ItemService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Time of one full ItemService.processItemsAsync run over a table of unprocessed items
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class ItemProcessingBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int items;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkApplication.start();
+        itemService = context.getBean(ItemService.class);
+        BenchmarkApplication.seed(context, items);
+    }
+
+    // Every run needs the whole table unprocessed again
+    @Setup(Level.Iteration)
+    public void reset() {
+        BenchmarkApplication.resetStatus(context);
+    }
+
+    @Benchmark
+    public List<Item> processItemsAsync() throws Exception {
+        return itemService.processItemsAsync().get();
+    }
+
+    // Same run without keeping the processed entities, run with -prof gc to compare allocation
+    @Benchmark
+    public ProcessingSummary processItemsSummaryAsync() throws Exception {
+        return itemService.processItemsSummaryAsync().get();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+}
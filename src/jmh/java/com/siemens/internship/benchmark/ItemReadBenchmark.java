@@ -0,0 +1,78 @@
+package com.siemens.internship.benchmark;
+
+import com.siemens.internship.dto.ItemPage;
+import com.siemens.internship.dto.ItemSummary;
+import com.siemens.internship.dto.ItemSummaryPage;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.service.ItemService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Reading the whole table: one findAll, keyset pages, and the JPA stream used by the streaming endpoints,
+// as entities and as summary projections (id, name and status only)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class ItemReadBenchmark {
+    private static final int PAGE_SIZE = 1000;
+
+    @Param({"1000", "100000"})
+    private int items;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkApplication.start();
+        itemService = context.getBean(ItemService.class);
+        BenchmarkApplication.seed(context, items);
+    }
+
+    @Benchmark
+    public List<Item> findAll() {
+        return itemService.findAll();
+    }
+
+    @Benchmark
+    public void pagedRead(Blackhole blackhole) {
+        Long cursor = null;
+        do {
+            ItemPage page = itemService.findPage(cursor, PAGE_SIZE);
+            blackhole.consume(page.items());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+    }
+
+    @Benchmark
+    public List<ItemSummary> findAllSummaries() {
+        return itemService.findAllSummaries();
+    }
+
+    @Benchmark
+    public void pagedSummaryRead(Blackhole blackhole) {
+        Long cursor = null;
+        do {
+            ItemSummaryPage page = itemService.findSummaryPage(cursor, PAGE_SIZE);
+            blackhole.consume(page.items());
+            cursor = page.nextCursor();
+        } while (cursor != null);
+    }
+
+    @Benchmark
+    public void streamAll(Blackhole blackhole) {
+        itemService.streamAll(blackhole::consume);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+}
@@ -0,0 +1,101 @@
+package com.siemens.internship.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.siemens.internship.model.Item;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// Serialization of item lists in each format the list responses of ItemController can be negotiated to
+// (JSON, Smile, CBOR), with and without gzip as applied by server.compression.
+// The score is the CPU cost; the encoded size of every format is printed once per trial.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemSerializationBenchmark {
+
+    @Param({"100", "10000"})
+    private int items;
+
+    private Item[] array;
+    private ObjectWriter jsonWriter;
+    private ObjectWriter smileWriter;
+    private ObjectWriter cborWriter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        List<Item> list = new ArrayList<>(items);
+        Instant now = Instant.now();
+        for (int i = 0; i < items; i++) {
+            Item item = new Item((long) i, "Item" + i, "Description" + i, i % 2 == 0 ? "PROCESSED" : null,
+                    "item" + i + "@example.com");
+            item.setVersion((long) i % 3);
+            item.setCreatedAt(now);
+            item.setUpdatedAt(now);
+            list.add(item);
+        }
+        array = list.toArray(new Item[0]);
+        // Same settings as the application's mappers
+        jsonWriter = writerFor(Jackson2ObjectMapperBuilder.json());
+        smileWriter = writerFor(Jackson2ObjectMapperBuilder.smile());
+        cborWriter = writerFor(Jackson2ObjectMapperBuilder.cbor());
+
+        System.out.printf("%n%d items: json %d B (gzip %d B), smile %d B (gzip %d B), cbor %d B (gzip %d B)%n", items,
+                json().length, jsonGzip().length, smile().length, smileGzip().length, cbor().length, cborGzip().length);
+    }
+
+    private static ObjectWriter writerFor(Jackson2ObjectMapperBuilder builder) {
+        ObjectMapper mapper = builder.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS).build();
+        return mapper.writerFor(Item[].class);
+    }
+
+    @Benchmark
+    public byte[] json() throws IOException {
+        return jsonWriter.writeValueAsBytes(array);
+    }
+
+    @Benchmark
+    public byte[] smile() throws IOException {
+        return smileWriter.writeValueAsBytes(array);
+    }
+
+    @Benchmark
+    public byte[] cbor() throws IOException {
+        return cborWriter.writeValueAsBytes(array);
+    }
+
+    @Benchmark
+    public byte[] jsonGzip() throws IOException {
+        return gzip(jsonWriter);
+    }
+
+    @Benchmark
+    public byte[] smileGzip() throws IOException {
+        return gzip(smileWriter);
+    }
+
+    @Benchmark
+    public byte[] cborGzip() throws IOException {
+        return gzip(cborWriter);
+    }
+
+    private byte[] gzip(ObjectWriter writer) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            writer.writeValue(out, array);
+        }
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,60 @@
+package com.siemens.internship.benchmark;
+
+import com.siemens.internship.model.Item;
+import com.siemens.internship.service.ItemService;
+import com.siemens.internship.service.WriteBehindBuffer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+// A burst of updates to a small set of hot items, the way PUT /api/items/{id} does them (read, then save),
+// written through one transaction per update or through the write-behind buffer. Each write-behind run
+// ends with a flush, so the score includes getting every update into the database.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemUpdateBenchmark {
+
+    @Param({"false", "true"})
+    private boolean writeBehind;
+
+    @Param({"100"})
+    private int hotItems;
+
+    @Param({"10000"})
+    private int updates;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private WriteBehindBuffer writeBehindBuffer;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkApplication.start("items.write-behind.enabled=" + writeBehind);
+        itemService = context.getBean(ItemService.class);
+        writeBehindBuffer = context.getBean(WriteBehindBuffer.class);
+        BenchmarkApplication.seed(context, hotItems);
+    }
+
+    @Benchmark
+    public void updates() {
+        for (int i = 0; i < updates; i++) {
+            long id = i % hotItems + 1;
+            Item current = itemService.findById(id).orElseThrow();
+            Item update = new Item(id, current.getName(), "Update" + i, current.getStatus(), current.getEmail(),
+                    current.getVersion());
+            update.setCreatedAt(current.getCreatedAt());
+            itemService.save(update);
+        }
+        writeBehindBuffer.flush();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+}
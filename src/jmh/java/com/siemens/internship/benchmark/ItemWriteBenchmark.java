@@ -0,0 +1,68 @@
+package com.siemens.internship.benchmark;
+
+import com.siemens.internship.dto.BatchResult;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.service.ItemBatchService;
+import com.siemens.internship.service.ItemService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Inserting a block of new items: one ItemService.save per item against one ItemBatchService.createAll
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ItemWriteBenchmark {
+
+    @Param({"1000"})
+    private int items;
+
+    private ConfigurableApplicationContext context;
+    private ItemService itemService;
+    private ItemBatchService itemBatchService;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = BenchmarkApplication.start();
+        itemService = context.getBean(ItemService.class);
+        itemBatchService = context.getBean(ItemBatchService.class);
+    }
+
+    // Keeps the table from growing across iterations
+    @Setup(Level.Iteration)
+    public void reset() {
+        BenchmarkApplication.seed(context, 0);
+    }
+
+    @Benchmark
+    public void singleSave(Blackhole blackhole) {
+        for (Item item : newItems()) {
+            blackhole.consume(itemService.save(item));
+        }
+    }
+
+    @Benchmark
+    public BatchResult batchedSave() {
+        return itemBatchService.createAll(newItems());
+    }
+
+    private List<Item> newItems() {
+        List<Item> list = new ArrayList<>(items);
+        for (int i = 0; i < items; i++) {
+            list.add(new Item(null, "Item" + i, "Description" + i, null, "item" + i + "@example.com"));
+        }
+        return list;
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+}
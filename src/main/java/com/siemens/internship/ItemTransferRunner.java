@@ -0,0 +1,74 @@
+package com.siemens.internship;
+
+import com.siemens.internship.dto.TransferResult;
+import com.siemens.internship.service.ItemTransferService;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.ExitCodeGenerator;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.List;
+
+// Command line import/export of items, run once the application has started:
+//   java -jar internship.jar --items.import=items.csv [--items.export=backup.ndjson]
+//   java -jar internship.jar --items.restore=backup.ndjson
+// A restore runs first and keeps the ids, versions and timestamps of the export; an import only seeds new
+// items. Afterwards main exits (status 1 if records were skipped), unless --items.transfer.exit=false,
+// e.g. to seed an in-memory database and keep serving it. The runner itself never ends the JVM, so
+// contexts embedding the application are left alone.
+@Component
+public class ItemTransferRunner implements ApplicationRunner, ExitCodeGenerator {
+    static final String RESTORE_OPTION = "items.restore";
+    static final String IMPORT_OPTION = "items.import";
+    static final String EXPORT_OPTION = "items.export";
+
+    @Autowired
+    private ItemTransferService itemTransferService;
+
+    @Value("${items.transfer.exit:true}")
+    boolean exit;
+
+    // Whether a transfer ran and the application should exit after it
+    @Getter
+    private boolean exitRequested;
+
+    private int exitCode;
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        List<String> restores = optionValues(args, RESTORE_OPTION);
+        List<String> imports = optionValues(args, IMPORT_OPTION);
+        List<String> exports = optionValues(args, EXPORT_OPTION);
+        if (restores.isEmpty() && imports.isEmpty() && exports.isEmpty()) {
+            return;
+        }
+        long failed = 0;
+        for (String file : restores) {
+            TransferResult result = itemTransferService.restoreFrom(Path.of(file));
+            failed += result.failed();
+        }
+        for (String file : imports) {
+            TransferResult result = itemTransferService.importFrom(Path.of(file));
+            failed += result.failed();
+        }
+        for (String file : exports) {
+            itemTransferService.exportTo(Path.of(file));
+        }
+        exitCode = failed > 0 ? 1 : 0;
+        exitRequested = exit;
+    }
+
+    @Override
+    public int getExitCode() {
+        return exitCode;
+    }
+
+    private static List<String> optionValues(ApplicationArguments args, String option) {
+        List<String> values = args.getOptionValues(option);
+        return values == null ? List.of() : values;
+    }
+}
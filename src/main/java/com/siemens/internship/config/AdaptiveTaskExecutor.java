@@ -0,0 +1,141 @@
+package com.siemens.internship.config;
+
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.IntSupplier;
+
+// Runs every task on a virtual thread, but keeps the number of tasks in flight under an AimdLimit that
+// follows task latency and connection pool saturation. A submission over the limit is handled by the
+// rejection policy; with BLOCK the producer waits for room, so any amount of work is taken at the
+// rate the database sustains instead of piling up in a queue or failing.
+public class AdaptiveTaskExecutor implements Executor, DisposableBean {
+
+    private final ExecutorService executor;
+    private final AimdLimit limit;
+    // Threads waiting for a database connection; more than zero means the pool is the bottleneck
+    private final IntSupplier connectionWaiters;
+    private final ItemExecutorProperties.RejectionPolicy rejectionPolicy;
+    private final Duration submitTimeout;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition released = lock.newCondition();
+    // Guarded by lock
+    private int active;
+    private int waiting;
+
+    public AdaptiveTaskExecutor(String threadNamePrefix, AimdLimit limit, IntSupplier connectionWaiters,
+                                ItemExecutorProperties.RejectionPolicy rejectionPolicy, Duration submitTimeout) {
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(threadNamePrefix, 0).factory());
+        this.limit = limit;
+        this.connectionWaiters = connectionWaiters;
+        this.rejectionPolicy = rejectionPolicy;
+        this.submitTimeout = submitTimeout;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (!acquire()) {
+            if (rejectionPolicy == ItemExecutorProperties.RejectionPolicy.CALLER_RUNS) {
+                task.run();
+                return;
+            }
+            throw new TaskRejectedException("Executor is at its limit of " + limit.getLimit() + " tasks in flight");
+        }
+        try {
+            executor.execute(() -> run(task));
+        } catch (RejectedExecutionException e) {
+            release();
+            throw new TaskRejectedException("Executor has been shut down", e);
+        }
+    }
+
+    private void run(Runnable task) {
+        long start = System.nanoTime();
+        try {
+            task.run();
+        } finally {
+            limit.onSample(System.nanoTime() - start, connectionWaiters.getAsInt() > 0);
+            release();
+        }
+    }
+
+    // Takes a slot under the current limit; only BLOCK waits for one
+    private boolean acquire() {
+        lock.lock();
+        try {
+            if (active < limit.getLimit()) {
+                active++;
+                return true;
+            }
+            if (rejectionPolicy != ItemExecutorProperties.RejectionPolicy.BLOCK) {
+                return false;
+            }
+            long remainingNanos = submitTimeout.toNanos();
+            waiting++;
+            try {
+                while (active >= limit.getLimit()) {
+                    if (remainingNanos <= 0) {
+                        return false;
+                    }
+                    remainingNanos = released.awaitNanos(remainingNanos);
+                }
+                active++;
+                return true;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            } finally {
+                waiting--;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release() {
+        lock.lock();
+        try {
+            active--;
+            // The limit may have grown, so every waiting producer gets to check again
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        return limit.getLimit();
+    }
+
+    public int getActiveCount() {
+        lock.lock();
+        try {
+            return active;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Number of producers blocked in execute()
+    public int getWaitingCount() {
+        lock.lock();
+        try {
+            return waiting;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
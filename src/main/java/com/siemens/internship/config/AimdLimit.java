@@ -0,0 +1,54 @@
+package com.siemens.internship.config;
+
+// Concurrency limit with additive increase / multiplicative decrease, as used by TCP congestion control.
+// Completed tasks are evaluated in windows of "limit" tasks: a window without overload raises the limit
+// by one, a window with overload (slow tasks or a saturated connection pool) cuts it by BACKOFF_RATIO.
+public class AimdLimit {
+    static final double BACKOFF_RATIO = 0.75;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double latencyTolerance;
+
+    // Guarded by "this"
+    private int limit;
+    private long bestLatencyNanos = Long.MAX_VALUE;
+    private int samples;
+    private long latencySumNanos;
+    private boolean saturated;
+
+    public AimdLimit(int minLimit, int maxLimit, double latencyTolerance) {
+        if (minLimit < 1 || maxLimit < minLimit) {
+            throw new IllegalArgumentException("Invalid limit range [" + minLimit + ", " + maxLimit + "]");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTolerance = latencyTolerance;
+        // Start half way, so a saturated system is not hit with the full limit right away
+        this.limit = Math.max(minLimit, maxLimit / 2);
+    }
+
+    public synchronized int getLimit() {
+        return limit;
+    }
+
+    // Records a completed task; saturated tells whether the connection pool had waiting threads
+    public synchronized void onSample(long latencyNanos, boolean saturated) {
+        this.saturated |= saturated;
+        samples++;
+        latencySumNanos += latencyNanos;
+        if (samples < limit) {
+            return;
+        }
+        long averageNanos = latencySumNanos / samples;
+        bestLatencyNanos = Math.min(bestLatencyNanos, averageNanos);
+        if (this.saturated || averageNanos > bestLatencyNanos * latencyTolerance) {
+            limit = Math.max(minLimit, (int) (limit * BACKOFF_RATIO));
+        } else {
+            limit = Math.min(maxLimit, limit + 1);
+        }
+        samples = 0;
+        latencySumNanos = 0;
+        this.saturated = false;
+    }
+}
@@ -0,0 +1,11 @@
+package com.siemens.internship.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+
+// Caching of items by id; the cache itself (Caffeine) is configured through spring.cache.* properties
+@Configuration
+@EnableCaching
+public class CacheConfig {
+    public static final String ITEMS_CACHE = "items";
+}
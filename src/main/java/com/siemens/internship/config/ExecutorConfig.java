@@ -0,0 +1,136 @@
+package com.siemens.internship.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import javax.sql.DataSource;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+@Configuration
+public class ExecutorConfig {
+    // Used when the datasource does not tell its pool size
+    private static final int DEFAULT_MAX_CONCURRENCY = 10;
+
+    // Thread pool executors are instrumented by Spring Boot (executor.active, executor.queued, ...);
+    // rejections and the virtual thread executors are not, so they get their own meters here.
+    @Bean(name = "customTaskExecutor")
+    public Executor taskExecutor(ItemExecutorProperties properties, DataSource dataSource, MeterRegistry meterRegistry) {
+        if (properties.getMode() == ItemExecutorProperties.Mode.ADAPTIVE) {
+            int maxConcurrency = maxConcurrency(properties, dataSource);
+            AimdLimit limit = new AimdLimit(Math.min(properties.getAdaptive().getMinConcurrency(), maxConcurrency),
+                    maxConcurrency, properties.getAdaptive().getLatencyTolerance());
+            AdaptiveTaskExecutor executor = new AdaptiveTaskExecutor("AsyncExecutor-", limit, connectionWaiters(dataSource),
+                    properties.getRejectionPolicy(), properties.getSubmitTimeout());
+            Gauge.builder("executor.active", executor, AdaptiveTaskExecutor::getActiveCount)
+                    .tag("name", "customTaskExecutor").register(meterRegistry);
+            Gauge.builder("executor.queued", executor, AdaptiveTaskExecutor::getWaitingCount)
+                    .tag("name", "customTaskExecutor").register(meterRegistry);
+            Gauge.builder("executor.limit", executor, AdaptiveTaskExecutor::getLimit)
+                    .description("Current adaptive limit of tasks in flight")
+                    .tag("name", "customTaskExecutor").register(meterRegistry);
+            return executor;
+        }
+        if (properties.getMode() == ItemExecutorProperties.Mode.VIRTUAL) {
+            VirtualThreadTaskExecutor executor = new VirtualThreadTaskExecutor("AsyncExecutor-", maxConcurrency(properties, dataSource));
+            Gauge.builder("executor.active", executor, VirtualThreadTaskExecutor::getActiveCount)
+                    .tag("name", "customTaskExecutor").register(meterRegistry);
+            Gauge.builder("executor.queued", executor, VirtualThreadTaskExecutor::getWaitingCount)
+                    .tag("name", "customTaskExecutor").register(meterRegistry);
+            return executor;
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(5); // Number of core threads
+        executor.setMaxPoolSize(10); // Maximum number of threads
+        executor.setQueueCapacity(25); // Queue capacity
+        executor.setThreadNamePrefix("AsyncExecutor-");
+        executor.setRejectedExecutionHandler(countingRejections("customTaskExecutor",
+                rejectionHandler(properties), meterRegistry));
+        executor.initialize();
+        return executor;
+    }
+
+    // Runs the reader loop of background processing jobs; their chunks still go to customTaskExecutor
+    @Bean(name = "processingJobExecutor")
+    public Executor processingJobExecutor(MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(4);
+        executor.setQueueCapacity(10);
+        executor.setThreadNamePrefix("ProcessingJob-");
+        // A full job executor is reported to the client (503) rather than holding its request
+        executor.setRejectedExecutionHandler(countingRejections("processingJobExecutor",
+                new ThreadPoolExecutor.AbortPolicy(), meterRegistry));
+        executor.initialize();
+        return executor;
+    }
+
+    // Counts the tasks the policy finally rejects in executor.rejected
+    private static RejectedExecutionHandler countingRejections(String executorName, RejectedExecutionHandler policy,
+                                                               MeterRegistry meterRegistry) {
+        Counter rejected = Counter.builder("executor.rejected")
+                .description("Tasks rejected because the executor was saturated")
+                .tag("name", executorName)
+                .register(meterRegistry);
+        return (task, pool) -> {
+            try {
+                policy.rejectedExecution(task, pool);
+            } catch (RejectedExecutionException e) {
+                rejected.increment();
+                throw e;
+            }
+        };
+    }
+
+    // Thread pool counterpart of the configured rejection policy; BLOCK waits for room in the queue
+    static RejectedExecutionHandler rejectionHandler(ItemExecutorProperties properties) {
+        return switch (properties.getRejectionPolicy()) {
+            case ABORT -> new ThreadPoolExecutor.AbortPolicy();
+            case CALLER_RUNS -> new ThreadPoolExecutor.CallerRunsPolicy();
+            case BLOCK -> (task, pool) -> {
+                try {
+                    if (!pool.isShutdown()
+                            && pool.getQueue().offer(task, properties.getSubmitTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                        return;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw new TaskRejectedException("Executor queue stayed full for " + properties.getSubmitTimeout());
+            };
+        };
+    }
+
+    // Threads waiting for a connection from the pool, 0 when the datasource does not tell
+    static IntSupplier connectionWaiters(DataSource dataSource) {
+        if (dataSource instanceof HikariDataSource hikari) {
+            return () -> {
+                HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+                return pool == null ? 0 : pool.getThreadsAwaitingConnection();
+            };
+        }
+        return () -> 0;
+    }
+
+    // Every task holds a connection while it runs, so more concurrent tasks than connections would only wait on the pool
+    static int maxConcurrency(ItemExecutorProperties properties, DataSource dataSource) {
+        if (properties.getMaxConcurrency() > 0) {
+            return properties.getMaxConcurrency();
+        }
+        if (dataSource instanceof HikariDataSource hikari) {
+            return hikari.getMaximumPoolSize();
+        }
+        return DEFAULT_MAX_CONCURRENCY;
+    }
+}
@@ -0,0 +1,60 @@
+package com.siemens.internship.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+// Settings of the customTaskExecutor used by the item processing pipeline, bound from "items.executor.*"
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "items.executor")
+public class ItemExecutorProperties {
+
+    public enum Mode {
+        // Fixed pool of platform threads with a bounded queue
+        PLATFORM,
+        // One virtual thread per task, with a cap on how many tasks run at the same time
+        VIRTUAL,
+        // One virtual thread per task; the number of tasks in flight follows an AIMD limit driven by
+        // task latency and by threads waiting for a database connection (AdaptiveTaskExecutor)
+        ADAPTIVE
+    }
+
+    // What happens to a task submitted while the executor is full
+    public enum RejectionPolicy {
+        // Fail the submission with a TaskRejectedException
+        ABORT,
+        // Run the task on the submitting thread, which slows the producer down
+        CALLER_RUNS,
+        // Make the submitting thread wait for room, up to submitTimeout
+        BLOCK
+    }
+
+    private Mode mode = Mode.PLATFORM;
+
+    // Maximum number of tasks running at once in VIRTUAL and ADAPTIVE mode.
+    // 0 means "as many as the connection pool has connections", since every task needs one.
+    private int maxConcurrency = 0;
+
+    private RejectionPolicy rejectionPolicy = RejectionPolicy.BLOCK;
+
+    // Longest a BLOCK submission waits before the task is rejected after all
+    private Duration submitTimeout = Duration.ofSeconds(30);
+
+    private final Adaptive adaptive = new Adaptive();
+
+    // Tuning of the ADAPTIVE mode ("items.executor.adaptive.*")
+    @Getter
+    @Setter
+    public static class Adaptive {
+
+        // The limit never drops below this many tasks in flight
+        private int minConcurrency = 1;
+
+        // A window of tasks whose average latency exceeds the best window seen so far by this
+        // factor counts as overload, like threads waiting for a connection do
+        private double latencyTolerance = 2.0;
+    }
+}
@@ -0,0 +1,95 @@
+package com.siemens.internship.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+// Tuning knobs for the item processing engine, bound from the "items.processing.*" properties
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "items.processing")
+public class ItemProcessingProperties {
+
+    // Number of item ids read per keyset page; every page becomes one unit of work for a worker
+    private int chunkSize = 500;
+
+    // Maximum number of chunks submitted to the executor at the same time
+    private int parallelism = 4;
+
+    // Width of the id range covered by one UPDATE statement of the set-based fast path
+    private long bulkSliceSize = 50_000;
+
+    private final Incremental incremental = new Incremental();
+
+    private final Partitioning partitioning = new Partitioning();
+
+    private final Pipeline pipeline = new Pipeline();
+
+    // Incremental runs only look at items changed since the last run ("items.processing.incremental.*")
+    @Getter
+    @Setter
+    public static class Incremental {
+
+        // Runs them on a schedule
+        private boolean enabled = false;
+
+        // Delay between the end of one scheduled run and the start of the next
+        private Duration interval = Duration.ofMinutes(1);
+
+        // Each run starts this far before the stored watermark, so changes committed late with
+        // an older timestamp are still picked up; items seen twice are skipped as already processed
+        private Duration overlap = Duration.ofSeconds(5);
+    }
+
+    // Runs on several instances sharing the database divide the table between them ("items.processing.partitioning.*")
+    @Getter
+    @Setter
+    public static class Partitioning {
+
+        // Off by default: every run walks the whole id range it was given
+        private boolean enabled = false;
+
+        // Width of the id ranges (partitions) that are leased to one instance at a time
+        private long partitionSize = 10_000;
+
+        // A lease not renewed for this long (e.g. its instance died) can be taken over by another instance.
+        // It is renewed with every page read, so it must exceed the time a page waits for a free worker.
+        private Duration leaseDuration = Duration.ofSeconds(30);
+    }
+
+    // Staged processing, where every step is an ItemStage with its own workers ("items.processing.pipeline.*")
+    @Getter
+    @Setter
+    public static class Pipeline {
+
+        // Off by default: chunks are processed by ItemService.processChunk
+        private boolean enabled = false;
+
+        // Settings by stage name ("items.processing.pipeline.stages.<name>.*")
+        private Map<String, Stage> stages = new HashMap<>();
+
+        // A stage without settings runs with the defaults of Stage
+        public Stage stage(String name) {
+            return stages.getOrDefault(name, new Stage());
+        }
+    }
+
+    @Getter
+    @Setter
+    public static class Stage {
+
+        // Tasks taking batches from the stage's queue at the same time
+        private int concurrency = 1;
+
+        // Most items handed to one call of the stage
+        private int batchSize = 100;
+
+        // Items that can wait in front of the stage in one run. While the queue is full, the stage before it
+        // (or, for the first stage, the reader of the pages) takes no further items.
+        private int queueCapacity = 1000;
+    }
+}
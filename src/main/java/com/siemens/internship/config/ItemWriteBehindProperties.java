@@ -0,0 +1,31 @@
+package com.siemens.internship.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+// Write-behind mode of item updates, bound from the "items.write-behind.*" properties (see WriteBehindBuffer)
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "items.write-behind")
+public class ItemWriteBehindProperties {
+
+    // Off by default: every update is written through in its own transaction
+    private boolean enabled = false;
+
+    // Buffered updates are flushed as soon as this many distinct items are waiting, and at most this many
+    // rows go into one JDBC batch / transaction
+    private int batchSize = 500;
+
+    // ... and at least this often
+    private Duration flushInterval = Duration.ofMillis(200);
+
+    // When this many items are waiting (e.g. the database is slow), writers flush the buffer themselves
+    private int maxPending = 10_000;
+
+    // Updates that could not be flushed on shutdown are saved here and replayed on the next start
+    private Path spillFile = Path.of("write-behind-spill.ndjson");
+}
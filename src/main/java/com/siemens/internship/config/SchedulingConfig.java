@@ -0,0 +1,13 @@
+package com.siemens.internship.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+// Scheduled incremental processing (IncrementalProcessingService); off unless
+// items.processing.incremental.enabled=true
+@Configuration
+@EnableScheduling
+@ConditionalOnProperty(name = "items.processing.incremental.enabled", havingValue = "true")
+public class SchedulingConfig {
+}
@@ -0,0 +1,55 @@
+package com.siemens.internship.config;
+
+import org.springframework.beans.factory.DisposableBean;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+// Starts a virtual thread for every task and lets at most maxConcurrency of them run at once.
+// Waiting tasks park on the semaphore instead of sitting in a bounded queue, so submitting never
+// blocks and never gets rejected, while the database still sees no more than maxConcurrency callers.
+public class VirtualThreadTaskExecutor implements Executor, DisposableBean {
+
+    private final ExecutorService executor;
+    private final Semaphore permits;
+    private final int maxConcurrency;
+
+    public VirtualThreadTaskExecutor(String threadNamePrefix, int maxConcurrency) {
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(threadNamePrefix, 0).factory());
+        this.permits = new Semaphore(maxConcurrency);
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        executor.execute(() -> {
+            permits.acquireUninterruptibly();
+            try {
+                task.run();
+            } finally {
+                permits.release();
+            }
+        });
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    // Number of tasks currently holding a permit
+    public int getActiveCount() {
+        return maxConcurrency - permits.availablePermits();
+    }
+
+    // Number of started tasks waiting for a permit
+    public int getWaitingCount() {
+        return permits.getQueueLength();
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
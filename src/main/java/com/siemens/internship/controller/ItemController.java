@@ -1,77 +1,342 @@
 package com.siemens.internship.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siemens.internship.dto.BatchResult;
+import com.siemens.internship.dto.BulkProcessingResult;
+import com.siemens.internship.dto.ItemCount;
+import com.siemens.internship.dto.ItemPage;
+import com.siemens.internship.dto.ItemSummary;
+import com.siemens.internship.dto.ItemSummaryPage;
+import com.siemens.internship.dto.ProcessingJobResults;
+import com.siemens.internship.dto.ProcessingJobStatus;
+import com.siemens.internship.dto.ProcessingSummary;
 import com.siemens.internship.model.Item;
+import com.siemens.internship.service.BulkProcessingException;
+import com.siemens.internship.service.IncrementalProcessingService;
+import com.siemens.internship.service.ItemBatchService;
 import com.siemens.internship.service.ItemService;
+import com.siemens.internship.service.ProcessingJobService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PageableDefault;
+import org.springframework.data.web.PagedModel;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.function.Function;
 
 @RestController
 @RequestMapping("/api/items")
+@Profile("!reactive")
 public class ItemController {
+    static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+    static final int MAX_PAGE_SIZE = 1000;
+    // Largest JSON array accepted by the bulk endpoints; bigger loads should be sent as NDJSON
+    static final int MAX_BATCH_SIZE = 10_000;
+    // Streamed responses are flushed to the client every this many items
+    private static final int STREAM_FLUSH_INTERVAL = 100;
+    // NDJSON bulk requests are written in transactions of this many items while the body is being read
+    private static final int NDJSON_CHUNK_SIZE = 1000;
+    // Properties the search results can be sorted by
+    private static final Set<String> SORTABLE_PROPERTIES = Set.of("id", "name", "email", "status");
 
     @Autowired
     private ItemService itemService;
 
+    @Autowired
+    private ItemBatchService itemBatchService;
+
+    @Autowired
+    private ProcessingJobService processingJobService;
+
+    @Autowired
+    private IncrementalProcessingService incrementalProcessingService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping
     public ResponseEntity<List<Item>> getAllItems() {
         return new ResponseEntity<>(itemService.findAll(), HttpStatus.OK);
     }
 
+    @GetMapping(params = "limit")
+    public ResponseEntity<ItemPage> getItemsPage(@RequestParam(required = false) Long after, @RequestParam int limit) {
+        // Reject page sizes that would bring back the cost of a full table read
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(itemService.findPage(after, limit), HttpStatus.OK);
+    }
+
+    // Pages of the items matching every given filter: exact status, exact email and name prefix
+    @GetMapping("/search")
+    public ResponseEntity<PagedModel<Item>> searchItems(@RequestParam(required = false) String status,
+                                                        @RequestParam(required = false) String email,
+                                                        @RequestParam(required = false) String name,
+                                                        @PageableDefault(size = 20, sort = "id") Pageable pageable) {
+        if (pageable.getPageSize() > MAX_PAGE_SIZE || !isSortable(pageable.getSort())) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(new PagedModel<>(itemService.search(status, email, name, pageable)), HttpStatus.OK);
+    }
+
+    // Summary variants of the list endpoints (?summary=true): only id, name and status of every item,
+    // read without loading entities, for list views that do not need the rest
+    @GetMapping(params = "summary=true")
+    public ResponseEntity<List<ItemSummary>> getAllItemSummaries() {
+        return new ResponseEntity<>(itemService.findAllSummaries(), HttpStatus.OK);
+    }
+
+    @GetMapping(params = {"summary=true", "limit"})
+    public ResponseEntity<ItemSummaryPage> getItemSummariesPage(@RequestParam(required = false) Long after,
+                                                                @RequestParam int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(itemService.findSummaryPage(after, limit), HttpStatus.OK);
+    }
+
+    @GetMapping(value = "/search", params = "summary=true")
+    public ResponseEntity<PagedModel<ItemSummary>> searchItemSummaries(@RequestParam(required = false) String status,
+                                                                       @RequestParam(required = false) String email,
+                                                                       @RequestParam(required = false) String name,
+                                                                       @PageableDefault(size = 20, sort = "id") Pageable pageable) {
+        if (pageable.getPageSize() > MAX_PAGE_SIZE || !isSortable(pageable.getSort())) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return new ResponseEntity<>(new PagedModel<>(itemService.searchSummaries(status, email, name, pageable)), HttpStatus.OK);
+    }
+
+    @GetMapping("/count")
+    public ResponseEntity<ItemCount> countItems(@RequestParam(required = false) String status,
+                                                @RequestParam(required = false) String email,
+                                                @RequestParam(required = false) String name) {
+        return new ResponseEntity<>(new ItemCount(itemService.count(status, email, name)), HttpStatus.OK);
+    }
+
+    // Streams all items as newline-delimited JSON, one item per line, selected with Accept: application/x-ndjson
+    @GetMapping(produces = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamItemsAsNdjson() {
+        StreamingResponseBody body = out -> writeItems(out, false);
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(APPLICATION_NDJSON_VALUE)).body(body);
+    }
+
+    // Streams all items as a single JSON array that is written out while it is being read
+    @GetMapping("/stream")
+    public ResponseEntity<StreamingResponseBody> streamItems() {
+        StreamingResponseBody body = out -> writeItems(out, true);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    private boolean isSortable(Sort sort) {
+        return sort.stream().allMatch(order -> SORTABLE_PROPERTIES.contains(order.getProperty()));
+    }
+
+    // Parses the NDJSON body item by item and hands it to the writer in chunks,
+    // so only one chunk of the request is held in memory at any time
+    private ResponseEntity<BatchResult> readNdjsonInChunks(InputStream body, Function<List<Item>, BatchResult> writer,
+                                                           HttpStatus successStatus) throws IOException {
+        List<BatchResult> parts = new ArrayList<>();
+        try (MappingIterator<Item> items = objectMapper.readerFor(Item.class).readValues(body)) {
+            List<Item> chunk = new ArrayList<>(NDJSON_CHUNK_SIZE);
+            while (items.hasNextValue()) {
+                chunk.add(items.nextValue());
+                if (chunk.size() == NDJSON_CHUNK_SIZE) {
+                    parts.add(writer.apply(chunk));
+                    chunk = new ArrayList<>(NDJSON_CHUNK_SIZE);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                parts.add(writer.apply(chunk));
+            }
+        } catch (JsonProcessingException e) {
+            // Chunks before the malformed line have already been written; report them with the error status
+            return new ResponseEntity<>(BatchResult.merge(parts), HttpStatus.BAD_REQUEST);
+        }
+        return batchResponse(BatchResult.merge(parts), successStatus);
+    }
+
+    // Returns the success status when every item was written, otherwise MULTI_STATUS with the per-item report
+    private ResponseEntity<BatchResult> batchResponse(BatchResult result, HttpStatus successStatus) {
+        return new ResponseEntity<>(result, result.hasFailures() ? HttpStatus.MULTI_STATUS : successStatus);
+    }
+
+    private void writeItems(OutputStream out, boolean asArray) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            if (asArray) {
+                generator.writeStartArray();
+            } else {
+                generator.setRootValueSeparator(new SerializedString("\n"));
+            }
+            long[] written = {0};
+            try {
+                itemService.streamAll(item -> {
+                    try {
+                        generator.writeObject(item);
+                        if (++written[0] % STREAM_FLUSH_INTERVAL == 0) {
+                            generator.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            if (asArray) {
+                generator.writeEndArray();
+            } else if (written[0] > 0) {
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
     @PostMapping
     public ResponseEntity<?> createItem(@Valid @RequestBody Item item, BindingResult result) {
         // Check for validation errors
         if (result.hasErrors()) {
             return new ResponseEntity<>(result.getAllErrors(), HttpStatus.BAD_REQUEST);
         }
-        // If validation passes, save the item and return CREATED status
-        return new ResponseEntity<>(itemService.save(item), HttpStatus.CREATED);
+        // If validation passes, save the item and return CREATED status; the version is assigned by the database
+        item.setVersion(null);
+        Item saved = itemService.save(item);
+        return ResponseEntity.status(HttpStatus.CREATED).eTag(eTag(saved)).body(saved);
+    }
+
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BatchResult> createItems(@RequestBody List<Item> items) {
+        if (items.size() > MAX_BATCH_SIZE) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return batchResponse(itemBatchService.createAll(items), HttpStatus.CREATED);
+    }
+
+    // NDJSON variant: the body is read as a stream, so it is not limited to MAX_BATCH_SIZE items
+    @PostMapping(value = "/batch", consumes = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<BatchResult> createItemsFromNdjson(InputStream body) throws IOException {
+        return readNdjsonInChunks(body, itemBatchService::createAll, HttpStatus.CREATED);
     }
 
+    @PutMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BatchResult> updateItems(@RequestBody List<Item> items) {
+        if (items.size() > MAX_BATCH_SIZE) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return batchResponse(itemBatchService.updateAll(items), HttpStatus.OK);
+    }
+
+    @PutMapping(value = "/batch", consumes = APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<BatchResult> updateItemsFromNdjson(InputStream body) throws IOException {
+        return readNdjsonInChunks(body, itemBatchService::updateAll, HttpStatus.OK);
+    }
+
+    @DeleteMapping("/batch")
+    public ResponseEntity<BatchResult> deleteItems(@RequestBody List<Long> ids) {
+        if (ids.size() > MAX_BATCH_SIZE) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return batchResponse(itemBatchService.deleteAll(ids), HttpStatus.OK);
+    }
+
+    // The ETag is the item's version: a client polling with If-None-Match gets a 304 without a body
+    // as long as the item has not changed
     @GetMapping("/{id}")
-    public ResponseEntity<Item> getItemById(@PathVariable Long id) {
-        // Return OK if the item is found, otherwise return NOT_FOUND
-        return itemService.findById(id)
-                .map(item -> new ResponseEntity<>(item, HttpStatus.OK))
-                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    public ResponseEntity<Item> getItemById(@PathVariable Long id,
+                                            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Optional<Item> item = itemService.findById(id);
+        // Return NOT_FOUND if the item does not exist
+        if (item.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        String eTag = eTag(item.get());
+        if (ifNoneMatch != null && matchesETag(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return ResponseEntity.ok().eTag(eTag).body(item.get());
     }
 
+    // With If-Match the update only applies to the version the client has seen (412 otherwise).
+    // Without it the update applies to the current version, and a concurrent change is reported as 409.
     @PutMapping("/{id}")
-    public ResponseEntity<?> updateItem(@PathVariable Long id, @Valid @RequestBody Item item, BindingResult result) {
+    public ResponseEntity<?> updateItem(@PathVariable Long id, @Valid @RequestBody Item item, BindingResult result,
+                                        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         // Verifies if there are validation errors in the request body.
         // If errors exist, returns a BAD_REQUEST response with the list of validation errors.
         if (result.hasErrors()) {
             return new ResponseEntity<>(result.getAllErrors(), HttpStatus.BAD_REQUEST);
         }
         Optional<Item> existingItem = itemService.findById(id);
-        if (existingItem.isPresent()) {
-            item.setId(id);
-            // Return OK if the item is successfully updated
-            return new ResponseEntity<>(itemService.save(item), HttpStatus.OK);
-        } else {
+        if (existingItem.isEmpty()) {
             // Return NOT_FOUND if the item does not exist
             return new ResponseEntity<>(HttpStatus.NOT_FOUND);
         }
+        if (ifMatch != null && !matchesETag(ifMatch, eTag(existingItem.get()))) {
+            return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+        }
+        item.setId(id);
+        item.setVersion(existingItem.get().getVersion());
+        item.setCreatedAt(existingItem.get().getCreatedAt());
+        try {
+            Item saved = itemService.save(item);
+            // Return OK if the item is successfully updated
+            return ResponseEntity.ok().eTag(eTag(saved)).body(saved);
+        } catch (OptimisticLockingFailureException e) {
+            return new ResponseEntity<>(ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT);
+        }
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<Void> deleteItem(@PathVariable Long id) {
+    public ResponseEntity<Void> deleteItem(@PathVariable Long id,
+                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         // Check if the item exists before attempting to delete
-        if (itemService.findById(id).isPresent()) {
-            // Delete the item and return NO_CONTENT if successful
+        Optional<Item> existingItem = itemService.findById(id);
+        if (existingItem.isEmpty()) {
+            // Return NOT_FOUND if the item does not exist
+            return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        }
+        if (ifMatch == null) {
             itemService.deleteById(id);
             return new ResponseEntity<>(HttpStatus.NO_CONTENT);
         }
-        // Return NOT_FOUND if the item does not exist
-        return new ResponseEntity<>(HttpStatus.NOT_FOUND);
+        if (!matchesETag(ifMatch, eTag(existingItem.get()))) {
+            return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+        }
+        try {
+            // Delete the item and return NO_CONTENT if successful
+            itemService.deleteById(id, existingItem.get().getVersion());
+            return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+        } catch (OptimisticLockingFailureException e) {
+            return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+        }
     }
 
+    // Synchronous variant kept for existing clients: it holds the request thread for the whole run.
+    // Large tables should use POST /api/items/process instead.
     @GetMapping("/process")
     public ResponseEntity<List<Item>> processItems() {
         try {
@@ -83,4 +348,106 @@ public class ItemController {
             return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
         }
     }
-}
\ No newline at end of file
+
+    // GET /api/items/process?summary=true: same run, but only counts and processed ids are returned
+    @GetMapping(value = "/process", params = "summary=true")
+    public ResponseEntity<ProcessingSummary> processItemsSummary() {
+        try {
+            return new ResponseEntity<>(itemService.processItemsSummaryAsync().get(), HttpStatus.OK);
+        } catch (Exception e) {
+            return new ResponseEntity<>(HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // Starts processing the slice [fromId, toId] in the background and returns the job right away
+    @PostMapping("/process")
+    public ResponseEntity<ProcessingJobStatus> startProcessingJob(@RequestParam(defaultValue = "1") long fromId,
+                                                                  @RequestParam(required = false) Long toId) {
+        long lastId = toId != null ? toId : Long.MAX_VALUE;
+        if (fromId < 1 || fromId > lastId) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        try {
+            // CONFLICT when another job is still working on part of the slice
+            return processingJobService.start(fromId, lastId)
+                    .map(job -> ResponseEntity.accepted()
+                            .location(URI.create("/api/items/process/" + job.getId()))
+                            .body(job.toStatus()))
+                    .orElse(new ResponseEntity<>(HttpStatus.CONFLICT));
+        } catch (TaskRejectedException e) {
+            // Too many jobs are already waiting to run
+            return new ResponseEntity<>(HttpStatus.SERVICE_UNAVAILABLE);
+        }
+    }
+
+    // Marks every unprocessed item as PROCESSED with set-based updates; use it when no per-item work is needed
+    @PostMapping("/process/bulk")
+    public ResponseEntity<BulkProcessingResult> processItemsInBulk() {
+        long start = System.nanoTime();
+        try {
+            long processed = itemService.markAllProcessed();
+            return new ResponseEntity<>(new BulkProcessingResult(processed, (System.nanoTime() - start) / 1_000_000), HttpStatus.OK);
+        } catch (BulkProcessingException e) {
+            // Part of the items were processed; the count tells how many
+            return new ResponseEntity<>(new BulkProcessingResult(e.getProcessed(), (System.nanoTime() - start) / 1_000_000),
+                    HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // Processes only the items changed since the previous incremental run (409 while one is still going)
+    @PostMapping("/process/changes")
+    public ResponseEntity<BulkProcessingResult> processChangedItems() {
+        long start = System.nanoTime();
+        OptionalLong processed = incrementalProcessingService.processChanges();
+        if (processed.isEmpty()) {
+            return new ResponseEntity<>(HttpStatus.CONFLICT);
+        }
+        return new ResponseEntity<>(new BulkProcessingResult(processed.getAsLong(), (System.nanoTime() - start) / 1_000_000), HttpStatus.OK);
+    }
+
+    @GetMapping("/process/{jobId}")
+    public ResponseEntity<ProcessingJobStatus> getProcessingJob(@PathVariable String jobId) {
+        return processingJobService.find(jobId)
+                .map(job -> new ResponseEntity<>(job.toStatus(), HttpStatus.OK))
+                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    @GetMapping("/process/{jobId}/results")
+    public ResponseEntity<ProcessingJobResults> getProcessingJobResults(@PathVariable String jobId,
+                                                                        @RequestParam(defaultValue = "0") int page,
+                                                                        @RequestParam(defaultValue = "100") int size) {
+        // The offset of the page must fit in an int
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE || (long) page * size > Integer.MAX_VALUE) {
+            return new ResponseEntity<>(HttpStatus.BAD_REQUEST);
+        }
+        return processingJobService.find(jobId)
+                .map(job -> new ResponseEntity<>(processingJobService.results(job, page, size), HttpStatus.OK))
+                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    // Cancels the job; chunks that are already running still commit, so the returned status may keep moving briefly
+    @DeleteMapping("/process/{jobId}")
+    public ResponseEntity<ProcessingJobStatus> cancelProcessingJob(@PathVariable String jobId) {
+        return processingJobService.cancel(jobId)
+                .map(job -> new ResponseEntity<>(job.toStatus(), HttpStatus.ACCEPTED))
+                .orElse(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    static String eTag(Item item) {
+        return "\"" + item.getVersion() + "\"";
+    }
+
+    // True when the If-Match / If-None-Match value is "*" or lists the ETag; weak ETags compare by value
+    static boolean matchesETag(String header, String eTag) {
+        for (String candidate : header.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,106 @@
+package com.siemens.internship.controller;
+
+import com.siemens.internship.model.Item;
+import com.siemens.internship.service.ReactiveItemService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.ObjectError;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+// Same /api/items contract as ItemController for the core endpoints, served without blocking a
+// thread per request. Only active in the "reactive" profile.
+@RestController
+@RequestMapping("/api/items")
+@Profile("reactive")
+public class ReactiveItemController {
+
+    @Autowired
+    private ReactiveItemService itemService;
+
+    // Items are written as they are read; Accept: application/x-ndjson gets one item per line
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Item> getAllItems() {
+        return itemService.findAll();
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity<Item>> createItem(@Valid @RequestBody Item item) {
+        return itemService.create(item)
+                .map(created -> new ResponseEntity<>(created, HttpStatus.CREATED));
+    }
+
+    // The version is the ETag, as in ItemController; If-None-Match with the current one gets 304
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<Item>> getItemById(@PathVariable Long id,
+                                                  @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        return itemService.findById(id)
+                .map(item -> {
+                    String eTag = ItemController.eTag(item);
+                    if (ifNoneMatch != null && ItemController.matchesETag(ifNoneMatch, eTag)) {
+                        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).<Item>build();
+                    }
+                    return ResponseEntity.ok().eTag(eTag).body(item);
+                })
+                .defaultIfEmpty(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    // 412 when If-Match does not match; a change between the read and the write is 412 with If-Match, 409 without
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<Item>> updateItem(@PathVariable Long id, @Valid @RequestBody Item item,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return itemService.findById(id)
+                .flatMap(existing -> {
+                    if (ifMatch != null && !ItemController.matchesETag(ifMatch, ItemController.eTag(existing))) {
+                        return Mono.just(new ResponseEntity<Item>(HttpStatus.PRECONDITION_FAILED));
+                    }
+                    return itemService.update(id, item, existing.getVersion())
+                            .map(saved -> ResponseEntity.ok().eTag(ItemController.eTag(saved)).body(saved))
+                            .onErrorResume(OptimisticLockingFailureException.class, e -> Mono.just(new ResponseEntity<>(
+                                    ifMatch != null ? HttpStatus.PRECONDITION_FAILED : HttpStatus.CONFLICT)));
+                })
+                .defaultIfEmpty(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteItem(@PathVariable Long id,
+                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch == null) {
+            return itemService.deleteById(id)
+                    .map(deleted -> new ResponseEntity<Void>(deleted ? HttpStatus.NO_CONTENT : HttpStatus.NOT_FOUND));
+        }
+        return itemService.findById(id)
+                .flatMap(existing -> {
+                    if (!ItemController.matchesETag(ifMatch, ItemController.eTag(existing))) {
+                        return Mono.just(new ResponseEntity<Void>(HttpStatus.PRECONDITION_FAILED));
+                    }
+                    return itemService.deleteById(id, existing.getVersion())
+                            .thenReturn(new ResponseEntity<Void>(HttpStatus.NO_CONTENT))
+                            .onErrorResume(OptimisticLockingFailureException.class,
+                                    e -> Mono.just(new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED)));
+                })
+                .defaultIfEmpty(new ResponseEntity<>(HttpStatus.NOT_FOUND));
+    }
+
+    // Processed items are sent to the client as soon as their chunk is committed
+    @GetMapping(value = "/process", produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<Item> processItems() {
+        return itemService.processItems();
+    }
+
+    // Same 400 body as the servlet controller: the list of validation errors
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<List<ObjectError>> handleValidationErrors(WebExchangeBindException e) {
+        return new ResponseEntity<>(e.getAllErrors(), HttpStatus.BAD_REQUEST);
+    }
+}
@@ -0,0 +1,23 @@
+package com.siemens.internship.dto;
+
+import java.util.List;
+
+// Outcome of a single entry of a bulk request; index is the position of the entry in the request
+public record BatchItemResult(int index, Long id, Outcome outcome, List<String> errors) {
+
+    public enum Outcome {
+        CREATED, UPDATED, DELETED, INVALID, NOT_FOUND, CONFLICT;
+
+        public boolean isSuccess() {
+            return this == CREATED || this == UPDATED || this == DELETED;
+        }
+    }
+
+    public static BatchItemResult success(int index, Long id, Outcome outcome) {
+        return new BatchItemResult(index, id, outcome, List.of());
+    }
+
+    public static BatchItemResult failure(int index, Long id, Outcome outcome, List<String> errors) {
+        return new BatchItemResult(index, id, outcome, errors);
+    }
+}
@@ -0,0 +1,30 @@
+package com.siemens.internship.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Report of a bulk request: totals plus one entry per item of the request, in request order
+public record BatchResult(int succeeded, int failed, List<BatchItemResult> results) {
+
+    public static BatchResult of(List<BatchItemResult> results) {
+        int succeeded = (int) results.stream().filter(result -> result.outcome().isSuccess()).count();
+        return new BatchResult(succeeded, results.size() - succeeded, results);
+    }
+
+    // Combines the reports of consecutive slices of one request, shifting the indexes
+    // of every slice so they keep pointing at the position in the whole request
+    public static BatchResult merge(List<BatchResult> parts) {
+        List<BatchItemResult> results = new ArrayList<>();
+        for (BatchResult part : parts) {
+            int offset = results.size();
+            for (BatchItemResult result : part.results()) {
+                results.add(new BatchItemResult(result.index() + offset, result.id(), result.outcome(), result.errors()));
+            }
+        }
+        return of(results);
+    }
+
+    public boolean hasFailures() {
+        return failed > 0;
+    }
+}
@@ -0,0 +1,5 @@
+package com.siemens.internship.dto;
+
+// Result of the set-based processing fast path: number of items marked as processed and how long it took
+public record BulkProcessingResult(long processed, long durationMillis) {
+}
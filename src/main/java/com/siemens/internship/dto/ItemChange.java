@@ -0,0 +1,7 @@
+package com.siemens.internship.dto;
+
+import java.time.Instant;
+
+// Position of an item in change order; the keyset of incremental processing
+public record ItemChange(Long id, Instant updatedAt) {
+}
@@ -0,0 +1,5 @@
+package com.siemens.internship.dto;
+
+// Number of items matching the filters of GET /api/items/count
+public record ItemCount(long count) {
+}
@@ -0,0 +1,10 @@
+package com.siemens.internship.dto;
+
+import com.siemens.internship.model.Item;
+
+import java.util.List;
+
+// One keyset page of items. nextCursor is the id to pass as "after" for the next page,
+// or null when this was the last page.
+public record ItemPage(List<Item> items, Long nextCursor) {
+}
@@ -0,0 +1,5 @@
+package com.siemens.internship.dto;
+
+// The columns list views need (see ItemRepository.findAllSummaries)
+public record ItemSummary(Long id, String name, String status) {
+}
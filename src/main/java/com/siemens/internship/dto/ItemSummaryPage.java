@@ -0,0 +1,7 @@
+package com.siemens.internship.dto;
+
+import java.util.List;
+
+// One keyset page of item summaries, with the same cursor as ItemPage
+public record ItemSummaryPage(List<ItemSummary> items, Long nextCursor) {
+}
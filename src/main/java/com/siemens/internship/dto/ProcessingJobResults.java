@@ -0,0 +1,9 @@
+package com.siemens.internship.dto;
+
+import com.siemens.internship.model.Item;
+
+import java.util.List;
+
+// One page of the items a processing job has marked as processed, in the order they were committed
+public record ProcessingJobResults(String jobId, int page, int size, long totalElements, List<Item> items) {
+}
@@ -0,0 +1,11 @@
+package com.siemens.internship.dto;
+
+import java.time.Instant;
+
+// Snapshot of the progress of a processing job, as returned by GET /api/items/process/{jobId}.
+// ratePerSecond is the number of processed items per second so far; etaSeconds is null until it can be estimated.
+public record ProcessingJobStatus(String jobId, String state, long fromId, long toId,
+                                  long total, long processed, long skipped, long failed, long remaining,
+                                  double ratePerSecond, Long etaSeconds,
+                                  Instant startedAt, Instant finishedAt) {
+}
@@ -0,0 +1,5 @@
+package com.siemens.internship.dto;
+
+// Outcome of a processing run without the processed entities: counts plus the ids that were processed
+public record ProcessingSummary(long processed, long skipped, long failed, long[] processedIds) {
+}
@@ -0,0 +1,5 @@
+package com.siemens.internship.dto;
+
+// Totals of a file import or export; failed counts the records that were not imported because they are invalid
+public record TransferResult(long succeeded, long failed) {
+}
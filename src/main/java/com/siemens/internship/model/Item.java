@@ -1,25 +1,46 @@
 package com.siemens.internship.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
 
-import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
 
 @Entity
+// Indexes behind the filters of GET /api/items/search and /api/items/count
+@Table(indexes = {
+        @Index(name = "idx_item_status", columnList = "status"),
+        @Index(name = "idx_item_email", columnList = "email"),
+        @Index(name = "idx_item_name", columnList = "name"),
+        // Keyset of incremental processing runs (see ItemRepository.findUnprocessedChangesAfter)
+        @Index(name = "idx_item_updated_at", columnList = "updated_at, id")
+})
 @Getter
 @Setter
-@AllArgsConstructor
 @NoArgsConstructor
 public class Item {
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    // Ids come from a database sequence that is reserved in blocks of 50 (pooled optimizer),
+    // so inserting a batch of items does not need a round trip per id and can be sent as a JDBC batch.
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_seq")
+    @SequenceGenerator(name = "item_seq", sequenceName = "item_seq", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
     // Ensures that the name field is not blank and provides a validation message if it is missing.
@@ -33,4 +54,32 @@ public class Item {
     @Email(message = "Invalid email format")
     @NotBlank(message = "Email is mandatory")
     private String email;
+
+    // Optimistic locking: every update checks and increments it, so concurrent writers cannot silently
+    // overwrite each other. It is also the ETag of the item in the API.
+    @Version
+    private Long version;
+
+    // Set by Hibernate on insert / on every update; clients cannot change them
+    @CreationTimestamp
+    @Column(updatable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Instant createdAt;
+
+    @UpdateTimestamp
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Instant updatedAt;
+
+    public Item(Long id, String name, String description, String status, String email) {
+        this(id, name, description, status, email, null);
+    }
+
+    public Item(Long id, String name, String description, String status, String email, Long version) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.status = status;
+        this.email = email;
+        this.version = version;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.siemens.internship.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+// Lease of one id partition of the item table (items.processing.partitioning.*): while it has not expired,
+// only its owner, a processing run of one application instance, processes the items of the partition.
+// One row per partition.
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProcessingLease {
+    @Id
+    private Long partitionId;
+
+    private String owner;
+
+    private Instant expiresAt;
+}
@@ -0,0 +1,26 @@
+package com.siemens.internship.model;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+
+// Last (updatedAt, id) position reached by incremental processing, so the next run
+// only reads the items changed after it. One row per named consumer.
+@Entity
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ProcessingWatermark {
+    @Id
+    private String name;
+
+    private Instant updatedAt;
+
+    private Long lastId;
+}
@@ -1,8 +1,80 @@
 package com.siemens.internship.repository;
 
+import com.siemens.internship.dto.ItemChange;
+import com.siemens.internship.dto.ItemSummary;
 import com.siemens.internship.model.Item;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface ItemRepository extends JpaRepository<Item, Long> {
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
 
+public interface ItemRepository extends JpaRepository<Item, Long>, JpaSpecificationExecutor<Item>, ItemSummaryRepository {
+
+    // Keyset page of the ids in (afterId, toId] that still need processing, ordered by id.
+    // Only ids are read, so the reader stays cheap even for very large tables.
+    @Query("select i.id from Item i where i.id > :afterId and i.id <= :toId " +
+            "and (i.status is null or upper(i.status) <> 'PROCESSED') order by i.id")
+    List<Long> findUnprocessedIdsInRange(@Param("afterId") Long afterId, @Param("toId") Long toId, Pageable pageable);
+
+    // Keyset page of the unprocessed items changed after the (since, afterId) position, in change order.
+    // Incremental runs walk it from their watermark instead of scanning the whole table.
+    @Query("select new com.siemens.internship.dto.ItemChange(i.id, i.updatedAt) from Item i " +
+            "where (i.updatedAt > :since or (i.updatedAt = :since and i.id > :afterId)) " +
+            "and (i.status is null or upper(i.status) <> 'PROCESSED') order by i.updatedAt, i.id")
+    List<ItemChange> findUnprocessedChangesAfter(@Param("since") Instant since, @Param("afterId") Long afterId,
+                                                 Pageable pageable);
+
+    @Query("select count(i) from Item i where i.id >= :fromId and i.id <= :toId " +
+            "and (i.status is null or upper(i.status) <> 'PROCESSED')")
+    long countUnprocessedInRange(@Param("fromId") Long fromId, @Param("toId") Long toId);
+
+    // Keyset (cursor on id) page of items: the cost of a page does not grow with its position
+    List<Item> findByIdGreaterThanOrderByIdAsc(Long afterId, Limit limit);
+
+    // Summary projections of the list views: only id, name and status are read, straight into ItemSummary
+    // by the constructor expression, so no entity is hydrated, kept in the persistence context or dirty-checked
+    @Query("select new com.siemens.internship.dto.ItemSummary(i.id, i.name, i.status) from Item i order by i.id")
+    List<ItemSummary> findAllSummaries();
+
+    @Query("select new com.siemens.internship.dto.ItemSummary(i.id, i.name, i.status) from Item i " +
+            "where i.id > :afterId order by i.id")
+    List<ItemSummary> findSummariesAfter(@Param("afterId") Long afterId, Limit limit);
+
+    // Streams every item ordered by id, fetching rows from the driver in blocks.
+    // Must be consumed inside a transaction and closed afterwards.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select i from Item i order by i.id")
+    Stream<Item> streamAll();
+
+    // Ids from the given collection that exist in the table
+    @Query("select i.id from Item i where i.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("select min(i.id) from Item i")
+    Long findMinId();
+
+    @Query("select max(i.id) from Item i")
+    Long findMaxId();
+
+    // Set-based status transition of the slice [fromId, toId]: one UPDATE statement instead of loading
+    // and saving every entity. The version is bumped as well, so ETags and concurrent writers see the change.
+    // Returns the number of rows that were changed.
+    @Modifying
+    @Query("update Item i set i.status = 'PROCESSED', i.version = i.version + 1, i.updatedAt = instant where i.id >= :fromId and i.id <= :toId " +
+            "and (i.status is null or upper(i.status) <> 'PROCESSED')")
+    int markProcessedInRange(@Param("fromId") Long fromId, @Param("toId") Long toId);
 }
@@ -0,0 +1,44 @@
+package com.siemens.internship.repository;
+
+import com.siemens.internship.model.Item;
+import org.springframework.data.jpa.domain.Specification;
+
+// Filters of the item search. Each one matches an indexed column in a way the index can serve:
+// equality for status and email, a prefix match for name.
+public final class ItemSpecifications {
+
+    private ItemSpecifications() {
+    }
+
+    // Combines the given filters; null or blank values are left out
+    public static Specification<Item> matching(String status, String email, String name) {
+        Specification<Item> specification = Specification.where(null);
+        if (hasText(status)) {
+            specification = specification.and(hasStatus(status));
+        }
+        if (hasText(email)) {
+            specification = specification.and(hasEmail(email));
+        }
+        if (hasText(name)) {
+            specification = specification.and(nameStartsWith(name));
+        }
+        return specification;
+    }
+
+    public static Specification<Item> hasStatus(String status) {
+        return (root, query, builder) -> builder.equal(root.get("status"), status);
+    }
+
+    public static Specification<Item> hasEmail(String email) {
+        return (root, query, builder) -> builder.equal(root.get("email"), email);
+    }
+
+    public static Specification<Item> nameStartsWith(String prefix) {
+        String pattern = prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+        return (root, query, builder) -> builder.like(root.get("name"), pattern, '\\');
+    }
+
+    private static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+}
@@ -0,0 +1,13 @@
+package com.siemens.internship.repository;
+
+import com.siemens.internship.dto.ItemSummary;
+import com.siemens.internship.model.Item;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+// Summary reads that Spring Data cannot derive: a specification search selecting ItemSummary instead of Item
+public interface ItemSummaryRepository {
+
+    Page<ItemSummary> findSummaries(Specification<Item> specification, Pageable pageable);
+}
@@ -0,0 +1,61 @@
+package com.siemens.internship.repository;
+
+import com.siemens.internship.dto.ItemSummary;
+import com.siemens.internship.model.Item;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.util.List;
+
+// Same filters, sorting and paging as JpaSpecificationExecutor.findAll, with only the summary columns selected
+class ItemSummaryRepositoryImpl implements ItemSummaryRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<ItemSummary> findSummaries(Specification<Item> specification, Pageable pageable) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ItemSummary> query = builder.createQuery(ItemSummary.class);
+        Root<Item> root = query.from(Item.class);
+        query.select(builder.construct(ItemSummary.class, root.get("id"), root.get("name"), root.get("status")));
+        where(query, root, builder, specification);
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, builder));
+
+        TypedQuery<ItemSummary> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        List<ItemSummary> content = typedQuery.getResultList();
+        // The count query is skipped when the page itself tells the total
+        return PageableExecutionUtils.getPage(content, pageable, () -> count(specification));
+    }
+
+    private long count(Specification<Item> specification) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = builder.createQuery(Long.class);
+        Root<Item> root = query.from(Item.class);
+        query.select(builder.count(root));
+        where(query, root, builder, specification);
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    private static void where(CriteriaQuery<?> query, Root<Item> root, CriteriaBuilder builder,
+                              Specification<Item> specification) {
+        Predicate predicate = specification.toPredicate(root, query, builder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.siemens.internship.repository;
+
+import com.siemens.internship.model.ProcessingLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+
+public interface ProcessingLeaseRepository extends JpaRepository<ProcessingLease, Long> {
+
+    // Takes the lease of the partition if it has expired, or extends it if the owner holds it already.
+    // The condition is checked by the UPDATE itself, so of two runs racing for a lease only one gets it.
+    @Modifying
+    @Query("update ProcessingLease l set l.owner = :owner, l.expiresAt = :expiresAt where l.partitionId = :partitionId " +
+            "and (l.owner = :owner or l.expiresAt < :now)")
+    int claim(@Param("partitionId") Long partitionId, @Param("owner") String owner, @Param("now") Instant now,
+              @Param("expiresAt") Instant expiresAt);
+
+    // First lease of a partition; a concurrent insert of the same partition fails on the primary key
+    @Modifying
+    @Query(value = "insert into processing_lease (partition_id, owner, expires_at) values (:partitionId, :owner, :expiresAt)",
+            nativeQuery = true)
+    int insert(@Param("partitionId") Long partitionId, @Param("owner") String owner, @Param("expiresAt") Instant expiresAt);
+
+    @Modifying
+    @Query("update ProcessingLease l set l.expiresAt = :now where l.partitionId in :partitionIds and l.owner = :owner")
+    int release(@Param("partitionIds") Collection<Long> partitionIds, @Param("owner") String owner, @Param("now") Instant now);
+}
@@ -0,0 +1,7 @@
+package com.siemens.internship.repository;
+
+import com.siemens.internship.model.ProcessingWatermark;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ProcessingWatermarkRepository extends JpaRepository<ProcessingWatermark, String> {
+}
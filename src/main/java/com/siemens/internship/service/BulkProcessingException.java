@@ -0,0 +1,15 @@
+package com.siemens.internship.service;
+
+import lombok.Getter;
+
+// A set-based processing run in which some slices failed; the other slices are committed,
+// and processed tells how many items they changed
+@Getter
+public class BulkProcessingException extends RuntimeException {
+    private final long processed;
+
+    public BulkProcessingException(long processed, Throwable cause) {
+        super("Bulk processing failed after " + processed + " items were processed", cause);
+        this.processed = processed;
+    }
+}
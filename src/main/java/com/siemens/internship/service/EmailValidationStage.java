@@ -0,0 +1,41 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.model.Item;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// First pipeline stage: only items whose email satisfies the constraints of Item.email go on;
+// the others are skipped and stay unprocessed
+@Slf4j
+@Component
+@Order(EmailValidationStage.ORDER)
+public class EmailValidationStage implements ItemStage {
+    public static final int ORDER = 100;
+
+    @Autowired
+    private Validator validator;
+
+    @Override
+    public String name() {
+        return "validate-email";
+    }
+
+    @Override
+    public List<Item> process(List<Item> batch) {
+        List<Item> valid = new ArrayList<>(batch.size());
+        for (Item item : batch) {
+            if (validator.validateProperty(item, "email").isEmpty()) {
+                valid.add(item);
+            } else {
+                log.debug("Item {} has an invalid email and is not processed", item.getId());
+            }
+        }
+        return valid;
+    }
+}
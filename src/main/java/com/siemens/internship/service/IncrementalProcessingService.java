@@ -0,0 +1,93 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.config.ItemProcessingProperties;
+import com.siemens.internship.dto.ItemChange;
+import com.siemens.internship.dto.ProcessingSummary;
+import com.siemens.internship.model.ProcessingWatermark;
+import com.siemens.internship.repository.ItemRepository;
+import com.siemens.internship.repository.ProcessingWatermarkRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+// Processes only the items changed since the previous run. The position reached is kept in a
+// ProcessingWatermark row, so a run reads the recent changes instead of scanning the whole table.
+@Slf4j
+@Service
+public class IncrementalProcessingService {
+    static final String WATERMARK = "items";
+    private static final Comparator<ItemChange> CHANGE_ORDER =
+            Comparator.comparing(ItemChange::updatedAt).thenComparing(ItemChange::id);
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ProcessingWatermarkRepository watermarkRepository;
+
+    @Autowired
+    ItemProcessingProperties processingProperties;
+
+    // Two runs at the same time would walk the same changes
+    private final ReentrantLock running = new ReentrantLock();
+
+    // Only runs when scheduling is enabled (items.processing.incremental.enabled, see SchedulingConfig)
+    @Scheduled(fixedDelayString = "${items.processing.incremental.interval}")
+    public void scheduledRun() {
+        processChanges();
+    }
+
+    // Processes the unprocessed items changed after the watermark and moves the watermark to the last
+    // change that was read. Returns the number of processed items, or empty when a run is already going.
+    public OptionalLong processChanges() {
+        if (!running.tryLock()) {
+            return OptionalLong.empty();
+        }
+        try {
+            ProcessingWatermark watermark = watermarkRepository.findById(WATERMARK)
+                    .orElseGet(() -> new ProcessingWatermark(WATERMARK, Instant.EPOCH, 0L));
+            Duration overlap = processingProperties.getIncremental().getOverlap();
+            ItemChange reached = new ItemChange(watermark.getLastId(), watermark.getUpdatedAt());
+            ItemChange from = overlap.isZero() ? reached : new ItemChange(0L, reached.updatedAt().minus(overlap));
+
+            PageRequest page = PageRequest.ofSize(processingProperties.getChunkSize());
+            AtomicReference<ItemChange> lastRead = new AtomicReference<>();
+            Function<ItemChange, List<ItemChange>> nextPage = previous -> {
+                ItemChange position = previous == null ? from : previous;
+                List<ItemChange> changes = itemRepository.findUnprocessedChangesAfter(position.updatedAt(), position.id(), page);
+                if (!changes.isEmpty()) {
+                    lastRead.set(changes.get(changes.size() - 1));
+                }
+                return changes;
+            };
+            ProcessingSummary summary = itemService.processPagesSummary(nextPage, ItemChange::id, ProcessingListener.NONE).join();
+
+            // A failed chunk keeps the watermark where it was, so the next run picks those items up again
+            if (summary.failed() > 0) {
+                log.warn("Incremental run had failed chunks, watermark stays at {}", reached);
+            } else if (lastRead.get() != null && CHANGE_ORDER.compare(lastRead.get(), reached) > 0) {
+                watermark.setUpdatedAt(lastRead.get().updatedAt());
+                watermark.setLastId(lastRead.get().id());
+                watermarkRepository.save(watermark);
+            }
+            log.debug("Incremental run processed {} items", summary.processed());
+            return OptionalLong.of(summary.processed());
+        } finally {
+            running.unlock();
+        }
+    }
+}
@@ -0,0 +1,218 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.dto.BatchItemResult;
+import com.siemens.internship.dto.BatchItemResult.Outcome;
+import com.siemens.internship.dto.BatchResult;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.repository.ItemRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+// Bulk create/update/delete of items. Every request is validated in one pass and written in
+// a single transaction; the persistence context is flushed and cleared every batchSize rows,
+// so Hibernate sends JDBC batches and memory does not grow with the size of the request.
+@Service
+public class ItemBatchService {
+    private static final String RESTORE_SQL = "insert into item (id, name, description, status, email, version, " +
+            "created_at, updated_at) values (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private ItemCache itemCache;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private WriteBehindBuffer writeBehindBuffer;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    int batchSize;
+
+    @Transactional
+    public BatchResult createAll(List<Item> items) {
+        List<BatchItemResult> results = new ArrayList<>(items.size());
+        int pending = 0;
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+            List<String> errors = validate(item);
+            if (!errors.isEmpty()) {
+                results.add(BatchItemResult.failure(i, null, Outcome.INVALID, errors));
+                continue;
+            }
+            // Ids are always generated; the sequence hands them out in blocks so no extra round trip is needed
+            item.setId(null);
+            item.setVersion(null);
+            entityManager.persist(item);
+            results.add(BatchItemResult.success(i, item.getId(), Outcome.CREATED));
+            if (++pending % batchSize == 0) {
+                flushAndClear();
+            }
+        }
+        return BatchResult.of(results);
+    }
+
+    // Inserts the items with the ids, versions and timestamps they carry, bypassing Hibernate, which would
+    // generate new ones. Items without an id or with the id of an existing item are not written.
+    @Transactional
+    public BatchResult restoreAll(List<Item> items) {
+        List<Long> ids = items.stream().map(Item::getId).filter(Objects::nonNull).toList();
+        Set<Long> taken = ids.isEmpty() ? new HashSet<>() : new HashSet<>(itemRepository.findExistingIds(ids));
+        List<BatchItemResult> results = new ArrayList<>(items.size());
+        List<Item> rows = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            Item item = items.get(i);
+            List<String> errors = validate(item);
+            if (item.getId() == null) {
+                errors = new ArrayList<>(errors);
+                errors.add("Id is mandatory");
+            }
+            if (!errors.isEmpty()) {
+                results.add(BatchItemResult.failure(i, item.getId(), Outcome.INVALID, errors));
+            } else if (!taken.add(item.getId())) {
+                results.add(BatchItemResult.failure(i, item.getId(), Outcome.CONFLICT, List.of("Item already exists")));
+            } else {
+                rows.add(item);
+                results.add(BatchItemResult.success(i, item.getId(), Outcome.CREATED));
+            }
+        }
+        Instant now = Instant.now();
+        jdbcTemplate.batchUpdate(RESTORE_SQL, rows, batchSize, (statement, item) -> {
+            statement.setLong(1, item.getId());
+            statement.setString(2, item.getName());
+            statement.setString(3, item.getDescription());
+            statement.setString(4, item.getStatus());
+            statement.setString(5, item.getEmail());
+            statement.setLong(6, item.getVersion() == null ? 0 : item.getVersion());
+            statement.setTimestamp(7, Timestamp.from(item.getCreatedAt() == null ? now : item.getCreatedAt()));
+            statement.setTimestamp(8, Timestamp.from(item.getUpdatedAt() == null ? now : item.getUpdatedAt()));
+        });
+        return BatchResult.of(results);
+    }
+
+    // Moves the id sequence past the highest id, so items created after a restore do not get restored ids.
+    // Hibernate takes the value it reads as the last id of a block of Item.ID_ALLOCATION_SIZE ids, so the
+    // sequence is only ever moved forward: blocks handed out before stay below the value it restarts with.
+    public void restartIdSequence() {
+        Long maxId = itemRepository.findMaxId();
+        Dialect dialect = entityManager.getEntityManagerFactory().unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect();
+        Long next = jdbcTemplate.queryForObject(dialect.getSequenceSupport().getSequenceNextValString("item_seq"), Long.class);
+        long restart = (maxId == null ? 0 : maxId) + Item.ID_ALLOCATION_SIZE;
+        if (next < restart) {
+            jdbcTemplate.execute("alter sequence item_seq restart with " + restart);
+        }
+    }
+
+    @Transactional
+    public BatchResult updateAll(List<Item> items) {
+        BatchItemResult[] results = new BatchItemResult[items.size()];
+        for (int from = 0; from < items.size(); from += batchSize) {
+            int to = Math.min(from + batchSize, items.size());
+            // One select for the whole slice instead of one per item
+            Set<Long> ids = new HashSet<>();
+            for (int i = from; i < to; i++) {
+                if (items.get(i).getId() != null) {
+                    ids.add(items.get(i).getId());
+                }
+            }
+            // Buffered updates are written first, so the version checks below see them
+            writeBehindBuffer.flush(ids);
+            Map<Long, Item> existing = itemRepository.findAllById(ids).stream()
+                    .collect(Collectors.toMap(Item::getId, Function.identity()));
+
+            for (int i = from; i < to; i++) {
+                Item item = items.get(i);
+                List<String> errors = validate(item);
+                if (item.getId() == null) {
+                    errors = new ArrayList<>(errors);
+                    errors.add("Id is mandatory");
+                }
+                if (!errors.isEmpty()) {
+                    results[i] = BatchItemResult.failure(i, item.getId(), Outcome.INVALID, errors);
+                    continue;
+                }
+                Item target = existing.get(item.getId());
+                if (target == null) {
+                    results[i] = BatchItemResult.failure(i, item.getId(), Outcome.NOT_FOUND, List.of("Item not found"));
+                    continue;
+                }
+                // An entry that carries a version is only applied to that version of the item
+                if (item.getVersion() != null && !item.getVersion().equals(target.getVersion())) {
+                    results[i] = BatchItemResult.failure(i, item.getId(), Outcome.CONFLICT,
+                            List.of("Item was modified (current version " + target.getVersion() + ")"));
+                    continue;
+                }
+                target.setName(item.getName());
+                target.setDescription(item.getDescription());
+                target.setStatus(item.getStatus());
+                target.setEmail(item.getEmail());
+                results[i] = BatchItemResult.success(i, item.getId(), Outcome.UPDATED);
+            }
+            flushAndClear();
+            itemCache.evict(existing.keySet());
+        }
+        return BatchResult.of(List.of(results));
+    }
+
+    @Transactional
+    public BatchResult deleteAll(List<Long> ids) {
+        List<BatchItemResult> results = new ArrayList<>(ids.size());
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Long> slice = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            Set<Long> existing = new HashSet<>(itemRepository.findExistingIds(slice));
+            // A single "delete ... where id in (...)" per slice
+            itemRepository.deleteAllByIdInBatch(existing);
+            itemCache.evict(existing);
+            // A duplicated id is only reported as deleted once
+            Set<Long> deleted = new HashSet<>();
+            for (int i = 0; i < slice.size(); i++) {
+                Long id = slice.get(i);
+                results.add(existing.contains(id) && deleted.add(id)
+                        ? BatchItemResult.success(from + i, id, Outcome.DELETED)
+                        : BatchItemResult.failure(from + i, id, Outcome.NOT_FOUND, List.of("Item not found")));
+            }
+        }
+        return BatchResult.of(results);
+    }
+
+    private List<String> validate(Item item) {
+        Set<ConstraintViolation<Item>> violations = validator.validate(item);
+        List<String> errors = new ArrayList<>(violations.size());
+        violations.forEach(violation -> errors.add(violation.getMessage()));
+        return errors;
+    }
+
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+}
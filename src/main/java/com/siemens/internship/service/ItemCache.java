@@ -0,0 +1,30 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.config.CacheConfig;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.stereotype.Component;
+
+// Invalidation of the items cache for writes that bypass the @Cacheable/@CacheEvict methods of ItemService.
+// Inside a transaction the eviction runs after commit, so a concurrent read cannot put the old row back.
+@Component
+public class ItemCache {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    public void evict(Iterable<Long> ids) {
+        Cache cache = cache();
+        ids.forEach(cache::evict);
+    }
+
+    public void clear() {
+        cache().clear();
+    }
+
+    private Cache cache() {
+        return new TransactionAwareCacheDecorator(cacheManager.getCache(CacheConfig.ITEMS_CACHE));
+    }
+}
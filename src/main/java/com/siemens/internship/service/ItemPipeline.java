@@ -0,0 +1,461 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.config.ItemProcessingProperties;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.repository.ItemRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+// Staged variant of the processing engine (items.processing.pipeline.enabled). The ItemStage beans are linked
+// by queues and every stage takes batches of its own size, with up to its own concurrency of tasks on
+// customTaskExecutor, so CPU-bound and I/O-bound stages of different batches overlap instead of running one
+// after the other. The calling thread reads the keyset pages and hands each one to a loader task, which puts
+// its items into the first queue. Every queue holds at most the queue capacity of its stage: a task only takes
+// as many items as the queue of the next stage has room for, and the reader only reads on while the first queue
+// has room, so a slow stage holds back the stages before it instead of piling up items. Tasks never wait for
+// each other; a stage whose next queue is full submits no tasks until that stage takes items. The run is
+// complete once every item it read has left the pipeline. Every stage reports its batch times, item outcomes and queue length.
+@Slf4j
+@Component
+public class ItemPipeline {
+    static final String STAGE_METRIC = "items.pipeline.stage";
+    static final String STAGE_ITEMS_METRIC = "items.pipeline.items";
+    static final String QUEUE_METRIC = "items.pipeline.queue";
+    // Reading the items of the pages into the first stage; only its concurrency is used
+    static final String LOAD_STAGE = "load";
+
+    @Autowired
+    private List<ItemStage> stages;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    @Qualifier("customTaskExecutor")
+    private Executor executor;
+
+    @Autowired
+    private WriteBehindBuffer writeBehindBuffer;
+
+    @Autowired
+    ItemProcessingProperties processingProperties;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    // Items waiting in front of every stage, over all runs
+    private final Map<String, AtomicInteger> queued = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void registerQueueGauges() {
+        for (ItemStage stage : stages) {
+            AtomicInteger length = queued.computeIfAbsent(stage.name(), name -> new AtomicInteger());
+            Gauge.builder(QUEUE_METRIC, length, AtomicInteger::get).tag("stage", stage.name()).register(meterRegistry);
+        }
+    }
+
+    // Runs the pages through the stages. The items leaving the last stage are reported as processed.
+    // If the executor rejects a loader, no further pages are read and the run fails once the items
+    // already loaded have gone through.
+    public <K> CompletableFuture<List<Item>> run(Function<K, List<K>> nextPage, Function<K, Long> idOf,
+                                                 ProcessingListener listener, boolean keepItems) {
+        int chunkSize = processingProperties.getChunkSize();
+        Run run = new Run(listener, keepItems ? new ConcurrentLinkedQueue<>() : null);
+        StageRun next = null;
+        for (int i = stages.size() - 1; i >= 0; i--) {
+            StageRun stage = new StageRun(stages.get(i), next, run);
+            if (next != null) {
+                next.previous = stage;
+            }
+            next = stage;
+        }
+        run.first = next;
+
+        int loaders = processingProperties.getPipeline().stage(LOAD_STAGE).getConcurrency();
+        Semaphore loading = new Semaphore(loaders);
+        Throwable failure = null;
+        try {
+            K last = null;
+            while (!listener.isCancelled()) {
+                List<K> page = nextPage.apply(last);
+                if (page.isEmpty()) {
+                    break;
+                }
+                List<Long> ids = page.stream().map(idOf).toList();
+                run.first.awaitRoom(ids.size());
+                run.outstanding.addAndGet(ids.size());
+                loading.acquire();
+                try {
+                    executor.execute(() -> {
+                        try {
+                            load(ids, run);
+                        } finally {
+                            loading.release();
+                        }
+                    });
+                } catch (RejectedExecutionException e) {
+                    loading.release();
+                    run.first.release(ids.size());
+                    run.left(ids.size());
+                    failure = e;
+                    break;
+                }
+                if (page.size() < chunkSize) {
+                    break;
+                }
+                last = page.get(page.size() - 1);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure = e;
+        } finally {
+            run.readAll();
+        }
+        CompletableFuture<List<Item>> done = run.done.thenApply(v -> keepItems ? List.copyOf(run.results) : List.of());
+        Throwable error = failure;
+        return error == null ? done : done.handle((items, e) -> null)
+                .thenCompose(v -> CompletableFuture.failedFuture(error));
+    }
+
+    // Loads the items of one page into the first stage
+    private void load(List<Long> ids, Run run) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        List<Item> items;
+        try {
+            // Updates buffered since the run started are written first, so the stages build on them
+            writeBehindBuffer.flush(ids);
+            items = itemRepository.findAllById(ids);
+        } catch (RuntimeException e) {
+            log.error("Loading a page of {} items starting at ID {} failed", ids.size(), ids.get(0), e);
+            itemCounter("failed").increment(ids.size());
+            run.listener.chunkFailed(ids, e);
+            run.first.release(ids.size());
+            run.left(ids.size());
+            return;
+        } finally {
+            sample.stop(meterRegistry.timer(STAGE_METRIC, "stage", LOAD_STAGE));
+        }
+        enter(ids.size(), items, run);
+    }
+
+    // Puts loaded items into the first stage, whose room for them is already reserved. Items processed or
+    // deleted by someone else since their ids were read are left as they are and counted as skipped, as the
+    // chunked engine does.
+    private void enter(int read, List<Item> loaded, Run run) {
+        List<Item> unprocessed = loaded.stream()
+                .filter(item -> !ItemService.PROCESSED.equalsIgnoreCase(item.getStatus()))
+                .toList();
+        int skipped = read - unprocessed.size();
+        if (skipped > 0) {
+            itemCounter("skipped").increment(skipped);
+            run.listener.chunkProcessed(List.of(), skipped);
+        }
+        run.first.release(skipped);
+        run.first.put(unprocessed);
+        run.left(skipped);
+    }
+
+    // Items rejected by a stage because their row changed since they were loaded go through the pipeline
+    // again with the current row, up to ItemService.MAX_CONFLICT_ATTEMPTS times like the chunks of the
+    // chunked engine; after that they are reported as failed, so incremental runs keep their watermark.
+    private void retry(StaleItemsException stale, StageRun stage, Run run) {
+        List<Long> again = new ArrayList<>();
+        List<Long> failed = new ArrayList<>();
+        for (Long id : stale.getIds()) {
+            int attempt = run.attempts.merge(id, 1, Integer::sum) + 1;
+            (attempt > ItemService.MAX_CONFLICT_ATTEMPTS ? failed : again).add(id);
+        }
+        if (!failed.isEmpty()) {
+            log.error("Stage {} lost {} items to concurrent updates {} times", stage.stage.name(), failed.size(),
+                    ItemService.MAX_CONFLICT_ATTEMPTS);
+            stage.failed(failed, new OptimisticLockingFailureException(
+                    "Items " + failed + " kept changing while they were processed"));
+        }
+        if (again.isEmpty()) {
+            return;
+        }
+        meterRegistry.counter(ItemService.CONFLICT_METRIC).increment();
+        List<Item> reloaded;
+        try {
+            writeBehindBuffer.flush(again);
+            reloaded = itemRepository.findAllById(again);
+        } catch (RuntimeException e) {
+            log.error("Reloading {} stale items failed", again.size(), e);
+            stage.failed(again, e);
+            return;
+        }
+        // Retries are few and may overfill the first queue rather than hold up the stage that rejected them
+        run.first.occupy(again.size());
+        enter(again.size(), reloaded, run);
+    }
+
+    // Outcome of the whole run, in the same counters as the chunked engine
+    private Counter itemCounter(String outcome) {
+        return meterRegistry.counter(ItemService.ITEMS_METRIC, "outcome", outcome);
+    }
+
+    // State shared by the stages of one run
+    private static class Run {
+        private final ProcessingListener listener;
+        private final Queue<Item> results;
+        // Items read but not yet through the pipeline
+        private final AtomicInteger outstanding = new AtomicInteger();
+        // Times an item was rejected as stale
+        private final Map<Long, Integer> attempts = new ConcurrentHashMap<>();
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private volatile boolean readAll;
+        private StageRun first;
+
+        Run(ProcessingListener listener, Queue<Item> results) {
+            this.listener = listener;
+            this.results = results;
+        }
+
+        // Items that went through the pipeline, or were dropped or failed on the way
+        void left(int items) {
+            if (items > 0) {
+                if (outstanding.addAndGet(-items) == 0 && readAll) {
+                    done.complete(null);
+                }
+            }
+        }
+
+        // No more pages will be read
+        void readAll() {
+            readAll = true;
+            if (outstanding.get() == 0) {
+                done.complete(null);
+            }
+        }
+    }
+
+    // One stage within one run: its queue, its tasks and the stages around it
+    private class StageRun {
+        private final ItemStage stage;
+        private final StageRun next;
+        private StageRun previous;
+        private final Run run;
+        private final ItemProcessingProperties.Stage settings;
+        private final int capacity;
+        private final Queue<Item> queue = new ConcurrentLinkedQueue<>();
+        // Items in the queue of this run, and of all runs for the gauge
+        private final AtomicInteger waiting = new AtomicInteger();
+        private final AtomicInteger length;
+        private final Timer timer;
+        // Tasks submitted and not finished yet
+        private int active;
+        // Items in the queue plus those the stage before it is working on, which were given room in it
+        private int reserved;
+
+        StageRun(ItemStage stage, StageRun next, Run run) {
+            this.stage = stage;
+            this.next = next;
+            this.run = run;
+            this.settings = processingProperties.getPipeline().stage(stage.name());
+            this.capacity = Math.max(1, settings.getQueueCapacity());
+            this.length = queued.computeIfAbsent(stage.name(), name -> new AtomicInteger());
+            this.timer = meterRegistry.timer(STAGE_METRIC, "stage", stage.name());
+        }
+
+        void put(List<Item> items) {
+            if (!items.isEmpty()) {
+                queue.addAll(items);
+                waiting.addAndGet(items.size());
+                length.addAndGet(items.size());
+                schedule();
+            }
+        }
+
+        // Waits until the queue has room for a page; an empty queue takes any page, however large
+        synchronized void awaitRoom(int items) throws InterruptedException {
+            while (reserved > 0 && reserved + items > capacity) {
+                wait();
+            }
+            reserved += items;
+        }
+
+        // Room for up to the given number of items, without waiting
+        synchronized int reserve(int items) {
+            int granted = Math.min(items, capacity - reserved);
+            if (granted <= 0) {
+                return 0;
+            }
+            reserved += granted;
+            return granted;
+        }
+
+        synchronized void occupy(int items) {
+            reserved += items;
+        }
+
+        synchronized boolean hasRoom() {
+            return reserved < capacity;
+        }
+
+        // Room given back, by items taken from the queue or reserved and never put into it. The stage before
+        // may run again; the reader waits on this stage if it is the first one.
+        void release(int items) {
+            if (items <= 0) {
+                return;
+            }
+            synchronized (this) {
+                reserved -= items;
+                notifyAll();
+            }
+            if (previous != null) {
+                previous.schedule();
+            }
+        }
+
+        // Submits a task per waiting batch, up to the concurrency of the stage, while the next stage has room
+        private void schedule() {
+            while (true) {
+                if (next != null && !next.hasRoom()) {
+                    return;
+                }
+                synchronized (this) {
+                    if (active >= settings.getConcurrency() || (long) active * settings.getBatchSize() >= waiting.get()) {
+                        return;
+                    }
+                    active++;
+                }
+                try {
+                    executor.execute(this::work);
+                } catch (RejectedExecutionException e) {
+                    rejected(e);
+                    return;
+                }
+            }
+        }
+
+        // Without a task of the stage left to take them, the waiting items fail; otherwise the running
+        // tasks take them on
+        private void rejected(RejectedExecutionException e) {
+            synchronized (this) {
+                if (--active > 0) {
+                    return;
+                }
+            }
+            List<Item> batch;
+            while (!(batch = take(settings.getBatchSize())).isEmpty()) {
+                log.error("Stage {} could not run a batch of {} items starting at ID {}", stage.name(),
+                        batch.size(), batch.get(0).getId(), e);
+                failed(batch.stream().map(Item::getId).toList(), e);
+            }
+        }
+
+        private void work() {
+            // The items the task takes and passes on must fit in the next queue
+            int room = next == null ? settings.getBatchSize() : next.reserve(settings.getBatchSize());
+            int unused = room;
+            try {
+                List<Item> batch = take(room);
+                if (batch.isEmpty()) {
+                    return;
+                }
+                if (run.listener.isCancelled()) {
+                    run.left(batch.size());
+                    return;
+                }
+                List<Item> passed = process(batch);
+                if (next != null) {
+                    unused = room - passed.size();
+                    next.put(passed);
+                } else if (!passed.isEmpty()) {
+                    if (run.results != null) {
+                        run.results.addAll(passed);
+                    }
+                    itemCounter("processed").increment(passed.size());
+                    run.listener.chunkProcessed(passed, 0);
+                    run.left(passed.size());
+                }
+            } finally {
+                if (next != null) {
+                    next.release(unused);
+                }
+                synchronized (this) {
+                    active--;
+                }
+                schedule();
+            }
+        }
+
+        // Up to the given number of the waiting items
+        private List<Item> take(int items) {
+            List<Item> batch = new ArrayList<>(Math.min(items, settings.getBatchSize()));
+            Item item;
+            while (batch.size() < items && (item = queue.poll()) != null) {
+                batch.add(item);
+            }
+            waiting.addAndGet(-batch.size());
+            length.addAndGet(-batch.size());
+            release(batch.size());
+            return batch;
+        }
+
+        private List<Item> process(List<Item> batch) {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            List<Item> passed;
+            StaleItemsException stale = null;
+            try {
+                passed = stage.process(batch);
+            } catch (StaleItemsException e) {
+                passed = e.getPassed();
+                stale = e;
+            } catch (Exception e) {
+                sample.stop(timer);
+                log.error("Stage {} failed on a batch of {} items starting at ID {}", stage.name(), batch.size(),
+                        batch.get(0).getId(), e);
+                failed(batch.stream().map(Item::getId).toList(), e);
+                return List.of();
+            }
+            sample.stop(timer);
+            stageCounter("passed").increment(passed.size());
+            int skipped = batch.size() - passed.size() - (stale == null ? 0 : stale.getIds().size());
+            if (skipped > 0) {
+                stageCounter("skipped").increment(skipped);
+                itemCounter("skipped").increment(skipped);
+                run.listener.chunkProcessed(List.of(), skipped);
+                run.left(skipped);
+            }
+            if (stale != null) {
+                stageCounter("stale").increment(stale.getIds().size());
+                retry(stale, this, run);
+            }
+            return passed;
+        }
+
+        void failed(List<Long> ids, Exception e) {
+            stageCounter("failed").increment(ids.size());
+            itemCounter("failed").increment(ids.size());
+            run.listener.chunkFailed(ids, e);
+            run.left(ids.size());
+        }
+
+        // Items that went through the stage, tagged with what happened to them
+        private Counter stageCounter(String outcome) {
+            return meterRegistry.counter(STAGE_ITEMS_METRIC, "stage", stage.name(), "outcome", outcome);
+        }
+    }
+}
@@ -1,20 +1,58 @@
 package com.siemens.internship.service;
 
+import com.siemens.internship.config.CacheConfig;
+import com.siemens.internship.config.ItemProcessingProperties;
+import com.siemens.internship.dto.ItemPage;
+import com.siemens.internship.dto.ItemSummary;
+import com.siemens.internship.dto.ItemSummaryPage;
+import com.siemens.internship.dto.ProcessingSummary;
 import com.siemens.internship.model.Item;
 import com.siemens.internship.repository.ItemRepository;
+import com.siemens.internship.repository.ItemSpecifications;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
+@Slf4j
 @Service
 public class ItemService {
+    static final String PROCESSED = "PROCESSED";
+    static final String ITEMS_METRIC = "items.processing.items";
+    static final String CHUNK_METRIC = "items.processing.chunk";
+    static final String CONFLICT_METRIC = "items.processing.conflicts";
+    // A chunk that keeps losing against concurrent updates is reported as failed after this many attempts
+    static final int MAX_CONFLICT_ATTEMPTS = 3;
+
     @Autowired
     private ItemRepository itemRepository;
 
@@ -22,30 +60,278 @@ public class ItemService {
     @Qualifier("customTaskExecutor") // custom executor
     Executor executor; // Use Spring-managed executor for better resource management
 
-    // Asynchronous method to process items
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    TransactionTemplate transactionTemplate;
+
+    @Autowired
+    ItemProcessingProperties processingProperties;
+
+    @Autowired
+    private ItemCache itemCache;
+
+    @Autowired
+    private WriteBehindBuffer writeBehindBuffer;
+
+    @Autowired
+    private ProcessingLeaseService processingLeaseService;
+
+    @Autowired
+    private ItemPipeline itemPipeline;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    // Asynchronous method to process items.
+    // Ids are read in keyset pages (chunks) and every chunk is handed to a worker,
+    // so the work per round trip is a whole chunk instead of a single row.
     @Async
     public CompletableFuture<List<Item>> processItemsAsync() {
-        List<Item> processedItems = new CopyOnWriteArrayList<>();
-
-        List<Item> items = itemRepository.findAll(); // we don't need to query on the id's
-
-        List<CompletableFuture<Void>> futures = items.stream()
-                .map(item -> CompletableFuture.runAsync(() -> {
-                    try {
-                        // We process only if the item is not already processed
-                        if (!"PROCESSED".equalsIgnoreCase(item.getStatus())) {
-                            item.setStatus("PROCESSED");
-                            Item saved = itemRepository.save(item);
-                            processedItems.add(saved);
+        return processRange(0L, Long.MAX_VALUE, ProcessingListener.NONE);
+    }
+
+    // Same run as processItemsAsync, but only counts and ids are returned
+    @Async
+    public CompletableFuture<ProcessingSummary> processItemsSummaryAsync() {
+        return processRangeSummary(0L, Long.MAX_VALUE, ProcessingListener.NONE);
+    }
+
+    // Processes the items with afterId < id <= toId. The calling thread reads the ids and
+    // the chunks run on the executor; the listener is told about every chunk and can stop the run.
+    public CompletableFuture<List<Item>> processRange(long afterId, long toId, ProcessingListener listener) {
+        Function<Long, List<Long>> pages = rangePages(afterId, toId);
+        try {
+            return processPages(pages, Function.identity(), listener, true).whenComplete((result, error) -> release(pages));
+        } catch (RuntimeException e) {
+            release(pages);
+            throw e;
+        }
+    }
+
+    // Like processRange, but the processed entities are dropped as soon as their chunk is done and only
+    // counts and ids are collected, so a run costs 8 bytes per processed item instead of a whole entity
+    public CompletableFuture<ProcessingSummary> processRangeSummary(long afterId, long toId, ProcessingListener listener) {
+        Function<Long, List<Long>> pages = rangePages(afterId, toId);
+        try {
+            return processPagesSummary(pages, Function.identity(), listener).whenComplete((result, error) -> release(pages));
+        } catch (RuntimeException e) {
+            release(pages);
+            throw e;
+        }
+    }
+
+    // Processes keyset pages of items: nextPage gets the last entry of the previous page (null for the
+    // first one) and returns the next page of at most chunk-size entries, empty when there is nothing left.
+    public <K> CompletableFuture<List<Item>> processPages(Function<K, List<K>> nextPage, Function<K, Long> idOf,
+                                                         ProcessingListener listener) {
+        return processPages(nextPage, idOf, listener, true);
+    }
+
+    // processPages returning only counts and ids (see processRangeSummary)
+    public <K> CompletableFuture<ProcessingSummary> processPagesSummary(Function<K, List<K>> nextPage, Function<K, Long> idOf,
+                                                                       ProcessingListener listener) {
+        SummaryListener summary = new SummaryListener(listener);
+        return processPages(nextPage, idOf, summary, false).thenApply(items -> summary.toSummary());
+    }
+
+    // With partitioning enabled, a range run walks the partitions under leases, so concurrent runs divide them
+    private Function<Long, List<Long>> rangePages(long afterId, long toId) {
+        ItemProcessingProperties.Partitioning partitioning = processingProperties.getPartitioning();
+        if (partitioning.isEnabled()) {
+            return new PartitionedPages(itemRepository, processingLeaseService, partitioning.getPartitionSize(),
+                    processingProperties.getChunkSize(), afterId, toId);
+        }
+        PageRequest page = PageRequest.ofSize(processingProperties.getChunkSize());
+        return lastId -> itemRepository.findUnprocessedIdsInRange(lastId == null ? afterId : lastId, toId, page);
+    }
+
+    private static void release(Function<Long, List<Long>> pages) {
+        if (pages instanceof PartitionedPages partitioned) {
+            partitioned.release();
+        }
+    }
+
+    // Every chunk keeps its own result list, and the lists are merged once at the end into a list
+    // of the exact size, so workers never contend on a shared collection
+    private <K> CompletableFuture<List<Item>> processPages(Function<K, List<K>> nextPage, Function<K, Long> idOf,
+                                                           ProcessingListener listener, boolean keepItems) {
+        // The pages are read from the rows, which must include the updates buffered so far
+        writeBehindBuffer.flush();
+        // Staged engine: validation, transformation and persistence as separate stages (see ItemPipeline)
+        if (processingProperties.getPipeline().isEnabled()) {
+            return itemPipeline.run(nextPage, idOf, listener, keepItems);
+        }
+        int chunkSize = processingProperties.getChunkSize();
+        // Bounds the number of chunks waiting on the executor, so big tables never overflow its queue
+        Semaphore inFlight = new Semaphore(processingProperties.getParallelism());
+        List<CompletableFuture<List<Item>>> chunks = new ArrayList<>();
+
+        K last = null;
+        while (!listener.isCancelled()) {
+            List<K> page = nextPage.apply(last);
+            if (page.isEmpty()) {
+                break;
+            }
+            List<Long> ids = page.stream().map(idOf).toList();
+            try {
+                inFlight.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return failAfter(chunks, e);
+            }
+            try {
+                chunks.add(CompletableFuture.supplyAsync(() -> {
+                            List<Item> processed = processChunk(ids, listener);
+                            return keepItems ? processed : List.<Item>of();
+                        }, executor)
+                        .whenComplete((result, error) -> inFlight.release()));
+            } catch (RuntimeException e) {
+                // Rejected by the executor (abort policy)
+                inFlight.release();
+                return failAfter(chunks, e);
+            }
+            if (page.size() < chunkSize) {
+                break;
+            }
+            last = page.get(page.size() - 1);
+        }
+
+        return CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0]))
+                .thenApply(v -> {
+                    if (!keepItems) {
+                        return List.of();
+                    }
+                    int total = chunks.stream().mapToInt(chunk -> chunk.join().size()).sum();
+                    List<Item> processedItems = new ArrayList<>(total);
+                    chunks.forEach(chunk -> processedItems.addAll(chunk.join()));
+                    return processedItems;
+                });
+    }
+
+    // Fails the run, but only once the chunks already submitted are done, so none of them
+    // keeps running after the caller has seen the result
+    private static <T> CompletableFuture<T> failAfter(List<? extends CompletableFuture<?>> chunks, Throwable error) {
+        return CompletableFuture.allOf(chunks.toArray(new CompletableFuture[0]))
+                .handle((result, chunkError) -> null)
+                .thenCompose(v -> CompletableFuture.failedFuture(error));
+    }
+
+    // Fast path for runs that need no per-item logic: marks every unprocessed item with set-based
+    // UPDATE statements, one per id slice, running the slices in parallel on the executor.
+    // Returns the number of items that were changed. If a slice fails, the others still commit and
+    // a BulkProcessingException tells how many items they changed.
+    public long markAllProcessed() {
+        // The set-based updates would bump the versions under buffered updates
+        writeBehindBuffer.flush();
+        Long minId = itemRepository.findMinId();
+        Long maxId = itemRepository.findMaxId();
+        if (minId == null) {
+            return 0;
+        }
+        long sliceSize = processingProperties.getBulkSliceSize();
+        Semaphore inFlight = new Semaphore(processingProperties.getParallelism());
+        List<CompletableFuture<Integer>> slices = new ArrayList<>();
+        Throwable failure = null;
+        long from = minId;
+        while (true) {
+            long sliceFrom = from;
+            long sliceTo = maxId - from < sliceSize ? maxId : from + sliceSize - 1;
+            inFlight.acquireUninterruptibly();
+            try {
+                slices.add(CompletableFuture.supplyAsync(() -> transactionTemplate.execute(
+                                status -> itemRepository.markProcessedInRange(sliceFrom, sliceTo)), executor)
+                        .whenComplete((result, error) -> inFlight.release()));
+            } catch (RuntimeException e) {
+                // Rejected by the executor: no further slices, but the submitted ones are still waited for
+                inFlight.release();
+                failure = e;
+                break;
+            }
+            if (sliceTo == maxId) {
+                break;
+            }
+            from = sliceTo + 1;
+        }
+
+        long updated = 0;
+        try {
+            CompletableFuture.allOf(slices.toArray(CompletableFuture[]::new)).handle((result, error) -> null).join();
+            for (CompletableFuture<Integer> slice : slices) {
+                if (slice.isCompletedExceptionally()) {
+                    failure = failure == null ? slice.exceptionNow() : failure;
+                } else {
+                    updated += slice.join();
+                }
+            }
+        } finally {
+            // The changed ids are not known, so nothing cached can be trusted anymore
+            itemCache.clear();
+        }
+        itemCounter("processed").increment(updated);
+        if (failure != null) {
+            throw new BulkProcessingException(updated, failure);
+        }
+        return updated;
+    }
+
+    // Marks one chunk of items as processed inside a single transaction.
+    // The entities are managed, so the status changes are flushed on commit as
+    // JDBC batch updates (see hibernate.jdbc.batch_size in application.properties).
+    List<Item> processChunk(List<Long> ids, ProcessingListener listener) {
+        if (listener.isCancelled()) {
+            return List.of();
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            // Buffered updates of the chunk are written first, so processing builds on them
+            writeBehindBuffer.flush(ids);
+            List<Item> processed = null;
+            for (int attempt = 1; processed == null; attempt++) {
+                try {
+                    processed = transactionTemplate.execute(status -> {
+                        List<Item> changed = new ArrayList<>(ids.size());
+                        for (Item item : itemRepository.findAllById(ids)) {
+                            // We process only if the item is not already processed
+                            if (!PROCESSED.equalsIgnoreCase(item.getStatus())) {
+                                item.setStatus(PROCESSED);
+                                changed.add(item);
+                            }
                         }
-                    } catch (Exception e) {
-                        System.err.println("Error processing item with ID " + item.getId() + ": " + e.getMessage());
+                        return changed;
+                    });
+                } catch (OptimisticLockingFailureException e) {
+                    // Someone updated an item of the chunk in the meantime: read the chunk again so
+                    // their change is kept instead of being overwritten
+                    if (attempt >= MAX_CONFLICT_ATTEMPTS) {
+                        throw e;
                     }
-                }, executor))
-                .toList();
+                    meterRegistry.counter(CONFLICT_METRIC).increment();
+                    log.debug("Version conflict in chunk starting at ID {}, attempt {}", ids.get(0), attempt);
+                }
+            }
+            itemCache.evict(ids);
+            sample.stop(meterRegistry.timer(CHUNK_METRIC, "outcome", "success"));
+            itemCounter("processed").increment(processed.size());
+            itemCounter("skipped").increment(ids.size() - processed.size());
+            listener.chunkProcessed(processed, ids.size() - processed.size());
+            return processed;
+        } catch (Exception e) {
+            log.error("Error processing chunk of {} items starting at ID {}", ids.size(), ids.get(0), e);
+            sample.stop(meterRegistry.timer(CHUNK_METRIC, "outcome", "failure"));
+            itemCounter("failed").increment(ids.size());
+            listener.chunkFailed(ids, e);
+            return List.of();
+        }
+    }
 
-        return CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
-                .thenApply(v -> processedItems);
+    // Items handled by the processing engine, tagged with what happened to them
+    private Counter itemCounter(String outcome) {
+        return Counter.builder(ITEMS_METRIC)
+                .description("Items handled by the processing engine")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
 
 
@@ -53,15 +339,103 @@ public class ItemService {
         return itemRepository.findAll();
     }
 
+    // Returns the page of items that follows the given cursor (exclusive), ordered by id
+    public ItemPage findPage(Long afterId, int limit) {
+        List<Item> items = itemRepository.findByIdGreaterThanOrderByIdAsc(afterId == null ? 0L : afterId, Limit.of(limit));
+        Long nextCursor = items.size() == limit ? items.get(items.size() - 1).getId() : null;
+        return new ItemPage(items, nextCursor);
+    }
+
+    // Summary reads for the list views, in read-only transactions
+    @Transactional(readOnly = true)
+    public List<ItemSummary> findAllSummaries() {
+        return itemRepository.findAllSummaries();
+    }
+
+    @Transactional(readOnly = true)
+    public ItemSummaryPage findSummaryPage(Long afterId, int limit) {
+        List<ItemSummary> items = itemRepository.findSummariesAfter(afterId == null ? 0L : afterId, Limit.of(limit));
+        Long nextCursor = items.size() == limit ? items.get(items.size() - 1).id() : null;
+        return new ItemSummaryPage(items, nextCursor);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<ItemSummary> searchSummaries(String status, String email, String name, Pageable pageable) {
+        return itemRepository.findSummaries(ItemSpecifications.matching(status, email, name), pageable);
+    }
+
+    // Items matching all given filters (null filters are ignored): exact status and email, name prefix
+    public Page<Item> search(String status, String email, String name, Pageable pageable) {
+        return itemRepository.findAll(ItemSpecifications.matching(status, email, name), pageable);
+    }
+
+    // Counts the items matching the filters without loading any of them
+    public long count(String status, String email, String name) {
+        return itemRepository.count(ItemSpecifications.matching(status, email, name));
+    }
+
+    // Hands every item to the consumer, one at a time, without materializing the whole table.
+    // Each entity is detached once consumed so the persistence context does not grow with the result.
+    @Transactional(readOnly = true)
+    public void streamAll(Consumer<Item> consumer) {
+        try (Stream<Item> items = itemRepository.streamAll()) {
+            items.forEach(item -> {
+                consumer.accept(item);
+                entityManager.detach(item);
+            });
+        }
+    }
+
+    // The saved state replaces whatever was cached for the item.
+    // In write-behind mode, updates of existing items are only buffered here (see WriteBehindBuffer).
+    @CachePut(cacheNames = CacheConfig.ITEMS_CACHE, key = "#result.id")
     public Item save(Item item) {
+        if (item.getId() != null && item.getVersion() != null && writeBehindBuffer.isAccepting()) {
+            return writeBehindBuffer.write(item);
+        }
         return itemRepository.save(item);
     }
 
+    @CacheEvict(cacheNames = CacheConfig.ITEMS_CACHE, key = "#id")
     public void deleteById(Long id) {
+        writeBehindBuffer.flush(id);
         itemRepository.deleteById(id);
     }
 
+    // Deletes the item only if it still has the expected version; the DELETE statement is conditional on
+    // the loaded version as well, so a concurrent update is reported instead of being lost
+    @CacheEvict(cacheNames = CacheConfig.ITEMS_CACHE, key = "#id")
+    @Transactional
+    public void deleteById(Long id, long expectedVersion) {
+        // A buffered update carries the version the client has seen, so it has to reach the row first
+        writeBehindBuffer.flush(id);
+        itemRepository.findById(id).ifPresent(item -> {
+            if (!Long.valueOf(expectedVersion).equals(item.getVersion())) {
+                throw new ObjectOptimisticLockingFailureException(Item.class, id);
+            }
+            itemRepository.delete(item);
+        });
+    }
+
+    // Served from the items cache when possible; missing items are not cached
+    @Cacheable(cacheNames = CacheConfig.ITEMS_CACHE, unless = "#result == null")
     public Optional<Item> findById(Long id) {
-        return itemRepository.findById(id);
+        // An update still waiting in the write-behind buffer is newer than the row
+        Optional<Item> buffered = writeBehindBuffer.find(id);
+        return buffered.isPresent() ? buffered : itemRepository.findById(id);
+    }
+
+    // Loads the given items in one query, returned in the order of the ids
+    public List<Item> findAllById(List<Long> ids) {
+        Map<Long, Item> byId = new HashMap<>();
+        itemRepository.findAllById(ids).forEach(item -> byId.put(item.getId(), item));
+        List<Item> items = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Item item = byId.get(id);
+            if (item != null) {
+                items.add(item);
+            }
+        }
+        return items;
     }
-}
\ No newline at end of file
+}
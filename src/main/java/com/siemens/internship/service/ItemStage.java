@@ -0,0 +1,19 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.model.Item;
+
+import java.util.List;
+
+// One step of the item processing pipeline (see ItemPipeline). Every ItemStage bean is a step, run in
+// @Order order; its workers and batch size come from items.processing.pipeline.stages.<name>.*.
+// Stages are called from several threads at once, so implementations must be thread-safe.
+public interface ItemStage {
+
+    // Name of the stage in the settings and in the metrics
+    String name();
+
+    // Processes a batch and returns the items that go on to the next stage; the items left out are
+    // counted as skipped. Items may be changed in place. A StaleItemsException sends the items whose rows
+    // changed in the meantime through the pipeline again; any other exception fails the whole batch.
+    List<Item> process(List<Item> batch);
+}
@@ -0,0 +1,206 @@
+package com.siemens.internship.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvFactory;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import com.siemens.internship.dto.BatchResult;
+import com.siemens.internship.dto.TransferResult;
+import com.siemens.internship.model.Item;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+// Export of the item table to a file and import of items from one, as NDJSON (one item per line) or CSV
+// with a header row, chosen by the file extension. Both directions stream: the export writes items while
+// they are read from the database (ItemService.streamAll), the import parses the file record by record and
+// writes it in chunks of IMPORT_CHUNK_SIZE items, each in its own transaction sent as JDBC batches
+// (ItemBatchService.createAll, or restoreAll for a restore). Memory use does not depend on the size of the file.
+@Slf4j
+@Service
+public class ItemTransferService {
+    // Items written per import transaction; chunks already written stay when a later record is malformed
+    static final int IMPORT_CHUNK_SIZE = 1000;
+    // The file is read and written through the channel in blocks of this many bytes
+    private static final int BUFFER_SIZE = 64 * 1024;
+    // Columns of exported CSV files. Imports take the columns from the header row, in any order.
+    private static final CsvSchema CSV_SCHEMA = CsvSchema.builder()
+            .addNumberColumn("id")
+            .addColumn("name")
+            .addColumn("description")
+            .addColumn("status")
+            .addColumn("email")
+            .addNumberColumn("version")
+            .addColumn("createdAt")
+            .addColumn("updatedAt")
+            .build()
+            .withHeader();
+
+    public enum Format {
+        NDJSON,
+        CSV;
+
+        // .csv files are CSV, anything else (.ndjson, .jsonl, ...) is NDJSON
+        public static Format of(Path file) {
+            return file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv") ? CSV : NDJSON;
+        }
+    }
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemBatchService itemBatchService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Jackson2ObjectMapperBuilder objectMapperBuilder;
+
+    // Same modules and settings as the JSON mapper, so both formats carry the same properties
+    private ObjectMapper csvMapper;
+
+    @PostConstruct
+    void init() {
+        csvMapper = objectMapperBuilder.factory(new CsvFactory()).build();
+    }
+
+    // Writes every item to the file, replacing it only once the export is complete
+    public TransferResult exportTo(Path file) throws IOException {
+        Path partial = file.resolveSibling(file.getFileName() + ".partial");
+        long written = 0;
+        try (FileChannel channel = FileChannel.open(partial, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+             OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE)) {
+            written = write(out, Format.of(file));
+            out.flush();
+            channel.force(false);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(partial);
+            throw e;
+        }
+        Files.move(partial, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.info("Exported {} items to {}", written, file);
+        return new TransferResult(written, 0);
+    }
+
+    // Creates an item from every record of the file, as seed data: ids, versions and timestamps in the file
+    // are not kept, like POST /api/items/batch the items get new ones. Invalid records are counted and skipped.
+    public TransferResult importFrom(Path file) throws IOException {
+        TransferResult result = load(file, Item.class, item -> item, itemBatchService::createAll);
+        log.info("Imported {} items from {} ({} invalid records skipped)", result.succeeded(), file, result.failed());
+        return result;
+    }
+
+    // Puts the items of an export back as they were: with their ids, versions and timestamps, so ETags
+    // handed out before stay valid. Records without an id or with the id of an existing item are skipped.
+    // Meant for an empty table before the application takes writes (see ItemBatchService.restartIdSequence).
+    public TransferResult restoreFrom(Path file) throws IOException {
+        TransferResult result;
+        try {
+            result = load(file, ExportedItem.class, ExportedItem::toItem, itemBatchService::restoreAll);
+        } finally {
+            // Also after a malformed record: the chunks before it are written
+            itemBatchService.restartIdSequence();
+        }
+        log.info("Restored {} items from {} ({} records skipped)", result.succeeded(), file, result.failed());
+        return result;
+    }
+
+    // Reads the records of the file and writes them in chunks
+    private <T> TransferResult load(Path file, Class<T> type, Function<T, Item> toItem,
+                                    Function<List<Item>, BatchResult> writer) throws IOException {
+        long succeeded = 0;
+        long failed = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             InputStream in = Channels.newInputStream(channel);
+             MappingIterator<T> records = reader(Format.of(file), type).readValues(in)) {
+            List<Item> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+            while (records.hasNextValue()) {
+                chunk.add(toItem.apply(records.nextValue()));
+                if (chunk.size() == IMPORT_CHUNK_SIZE) {
+                    BatchResult result = writer.apply(chunk);
+                    succeeded += result.succeeded();
+                    failed += result.failed();
+                    chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                BatchResult result = writer.apply(chunk);
+                succeeded += result.succeeded();
+                failed += result.failed();
+            }
+        }
+        return new TransferResult(succeeded, failed);
+    }
+
+    private long write(OutputStream out, Format format) throws IOException {
+        ObjectWriter writer = format == Format.CSV
+                ? csvMapper.writerFor(Item.class).with(CSV_SCHEMA)
+                : objectMapper.writerFor(Item.class).withRootValueSeparator("\n");
+        long[] written = {0};
+        try (SequenceWriter sequence = writer.without(JsonGenerator.Feature.AUTO_CLOSE_TARGET).writeValues(out)) {
+            itemService.streamAll(item -> {
+                try {
+                    sequence.write(item);
+                    written[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        // NDJSON ends every line, the last one included
+        if (format == Format.NDJSON && written[0] > 0) {
+            out.write('\n');
+        }
+        return written[0];
+    }
+
+    private ObjectReader reader(Format format, Class<?> type) {
+        if (format == Format.CSV) {
+            // Empty cells are missing values, as they are written for null properties
+            return csvMapper.readerFor(type).with(CsvSchema.emptySchema().withHeader())
+                    .with(CsvParser.Feature.EMPTY_STRING_AS_NULL);
+        }
+        return objectMapper.readerFor(type);
+    }
+
+    // A record of an export as a restore reads it; Item itself does not take the timestamps from JSON,
+    // since clients cannot set them
+    record ExportedItem(Long id, String name, String description, String status, String email, Long version,
+                        Instant createdAt, Instant updatedAt) {
+        Item toItem() {
+            Item item = new Item(id, name, description, status, email, version);
+            item.setCreatedAt(createdAt);
+            item.setUpdatedAt(updatedAt);
+            return item;
+        }
+    }
+}
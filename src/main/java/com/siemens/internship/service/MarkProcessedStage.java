@@ -0,0 +1,26 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.model.Item;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// Transformation stage: the status change of processing. Enrichment stages go between validation and
+// this one (an @Order between EmailValidationStage.ORDER and MarkProcessedStage.ORDER).
+@Component
+@Order(MarkProcessedStage.ORDER)
+public class MarkProcessedStage implements ItemStage {
+    public static final int ORDER = 300;
+
+    @Override
+    public String name() {
+        return "mark-processed";
+    }
+
+    @Override
+    public List<Item> process(List<Item> batch) {
+        batch.forEach(item -> item.setStatus(ItemService.PROCESSED));
+        return batch;
+    }
+}
@@ -0,0 +1,134 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.repository.ItemRepository;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+// Keyset pages of unprocessed ids over the partitions (fixed ranges of partition-size ids) this run manages
+// to lease, so concurrent processing runs, on one instance or several, divide the table instead of racing for
+// the same rows. Partitions leased by another run are put aside and tried again once every other partition is
+// done: the holder may only cover part of them (a narrower range), so whatever it leaves unprocessed in this
+// run's range is taken over when it releases the lease or lets it expire. Pages are filled across partitions,
+// so only the last page of a run is short; ids are ascending within a partition only.
+// The lease of the partition being read is renewed with every page; release() gives all leases back after the run.
+class PartitionedPages implements Function<Long, List<Long>> {
+    // Pause between rounds over the partitions other runs still hold
+    private static final long RETRY_MILLIS = 50;
+
+    private final ItemRepository itemRepository;
+    private final ProcessingLeaseService leases;
+    // Lease owner token of this run
+    private final String owner;
+    private final long partitionSize;
+    private final int chunkSize;
+    private final long afterId;
+    private final long toId;
+    private final long firstPartition;
+    private final long partitionCount;
+    // Runs start at a random partition and wrap around, so they do not race for the same leases
+    private final long offset;
+    private final List<Long> claimed = new ArrayList<>();
+    // Partitions another run held when they were tried
+    private final List<Long> heldElsewhere = new ArrayList<>();
+
+    // Partition being read (-1 for none), the last id read from it and the number of partitions tried so far
+    private long partition = -1;
+    private long cursor;
+    private long tried;
+
+    PartitionedPages(ItemRepository itemRepository, ProcessingLeaseService leases, long partitionSize, int chunkSize,
+                     long afterId, long toId) {
+        this.itemRepository = itemRepository;
+        this.leases = leases;
+        this.owner = leases.newOwner();
+        this.partitionSize = partitionSize;
+        this.chunkSize = chunkSize;
+        Long maxId = itemRepository.findMaxId();
+        this.afterId = afterId;
+        this.toId = maxId == null ? afterId : Math.min(toId, maxId);
+        // Partition p holds the ids in (p * partitionSize, (p + 1) * partitionSize]
+        this.firstPartition = afterId / partitionSize;
+        this.partitionCount = this.toId > afterId ? (this.toId - 1) / partitionSize - firstPartition + 1 : 0;
+        this.offset = partitionCount > 0 ? ThreadLocalRandom.current().nextLong(partitionCount) : 0;
+    }
+
+    // The last id of the previous page is tracked here, across partitions
+    @Override
+    public synchronized List<Long> apply(Long lastId) {
+        List<Long> page = new ArrayList<>(chunkSize);
+        // Another run has taken over the partition after our lease expired
+        if (partition >= 0 && !leases.tryClaim(owner, partition)) {
+            partition = -1;
+        }
+        while (page.size() < chunkSize && (partition >= 0 || claimNext())) {
+            int wanted = chunkSize - page.size();
+            List<Long> ids = itemRepository.findUnprocessedIdsInRange(cursor, end(partition), PageRequest.ofSize(wanted));
+            page.addAll(ids);
+            if (ids.size() < wanted) {
+                partition = -1;
+            } else {
+                cursor = ids.get(ids.size() - 1);
+            }
+        }
+        return page;
+    }
+
+    private boolean claimNext() {
+        while (tried < partitionCount) {
+            long candidate = firstPartition + (offset + tried++) % partitionCount;
+            if (claim(candidate)) {
+                return true;
+            }
+            heldElsewhere.add(candidate);
+        }
+        while (!heldElsewhere.isEmpty()) {
+            for (Iterator<Long> candidates = heldElsewhere.iterator(); candidates.hasNext(); ) {
+                long candidate = candidates.next();
+                // Nothing left in this run's part of it, whoever did the work
+                if (itemRepository.findUnprocessedIdsInRange(start(candidate), end(candidate), PageRequest.ofSize(1)).isEmpty()) {
+                    candidates.remove();
+                } else if (claim(candidate)) {
+                    candidates.remove();
+                    return true;
+                }
+            }
+            if (!heldElsewhere.isEmpty()) {
+                try {
+                    Thread.sleep(RETRY_MILLIS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+        }
+        return false;
+    }
+
+    private boolean claim(long candidate) {
+        if (!leases.tryClaim(owner, candidate)) {
+            return false;
+        }
+        claimed.add(candidate);
+        partition = candidate;
+        cursor = start(candidate);
+        return true;
+    }
+
+    // Bounds of this run's part of the partition: ids after start, up to end
+    private long start(long candidate) {
+        return Math.max(afterId, candidate * partitionSize);
+    }
+
+    private long end(long candidate) {
+        return Math.min(toId, (candidate + 1) * partitionSize);
+    }
+
+    synchronized void release() {
+        leases.release(owner, claimed);
+    }
+}
@@ -0,0 +1,82 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.model.Item;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+// Last pipeline stage: writes what the earlier stages changed as one JDBC batch per batch, without reading
+// the rows again. Every UPDATE is conditional on the version the pipeline loaded, so an item changed by
+// someone else in the meantime keeps their change; it is reported stale and processed again from its
+// current row.
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE)
+public class PersistStage implements ItemStage {
+    private static final String UPDATE_SQL = "update item set name = ?, description = ?, status = ?, email = ?, " +
+            "version = version + 1, updated_at = ? where id = ? and version = ?";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ItemCache itemCache;
+
+    @Override
+    public String name() {
+        return "persist";
+    }
+
+    @Override
+    public List<Item> process(List<Item> batch) {
+        Instant now = Instant.now();
+        int[] counts = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(UPDATE_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement statement, int i) throws SQLException {
+                Item item = batch.get(i);
+                statement.setString(1, item.getName());
+                statement.setString(2, item.getDescription());
+                statement.setString(3, item.getStatus());
+                statement.setString(4, item.getEmail());
+                statement.setTimestamp(5, Timestamp.from(now));
+                statement.setLong(6, item.getId());
+                statement.setLong(7, item.getVersion());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return batch.size();
+            }
+        }));
+        List<Item> written = new ArrayList<>(batch.size());
+        List<Long> stale = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            Item item = batch.get(i);
+            if (counts[i] != 0) {
+                item.setVersion(item.getVersion() + 1);
+                item.setUpdatedAt(now);
+                written.add(item);
+            } else {
+                stale.add(item.getId());
+            }
+        }
+        itemCache.evict(batch.stream().map(Item::getId).toList());
+        if (!stale.isEmpty()) {
+            throw new StaleItemsException(written, stale);
+        }
+        return written;
+    }
+}
@@ -0,0 +1,57 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.model.Item;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Append-only list of ids kept as one long[] per chunk. Appending never copies what is already
+// stored, and an id takes 8 bytes instead of a boxed Long plus a reference to it.
+class ProcessedIds {
+    // Guarded by "this"
+    private final List<long[]> chunks = new ArrayList<>();
+    private int size;
+
+    synchronized void add(List<Item> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        long[] ids = new long[items.size()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = items.get(i).getId();
+        }
+        chunks.add(ids);
+        size += ids.length;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    // Ids in [offset, offset + limit), in the order the chunks were added
+    synchronized List<Long> get(int offset, int limit) {
+        List<Long> page = new ArrayList<>(Math.max(0, Math.min(limit, size - offset)));
+        int chunkStart = 0;
+        for (long[] chunk : chunks) {
+            if (page.size() == limit) {
+                break;
+            }
+            int chunkEnd = chunkStart + chunk.length;
+            for (int i = Math.max(offset, chunkStart); i < chunkEnd && page.size() < limit; i++) {
+                page.add(chunk[i - chunkStart]);
+            }
+            chunkStart = chunkEnd;
+        }
+        return page;
+    }
+
+    synchronized long[] toArray() {
+        long[] all = new long[size];
+        int position = 0;
+        for (long[] chunk : chunks) {
+            System.arraycopy(chunk, 0, all, position, chunk.length);
+            position += chunk.length;
+        }
+        return all;
+    }
+}
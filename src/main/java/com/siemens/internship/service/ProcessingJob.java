@@ -0,0 +1,124 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.dto.ProcessingJobStatus;
+import com.siemens.internship.model.Item;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+// A processing run over the slice [fromId, toId] of the item table, started through the job API.
+// Progress counters are updated by the worker threads and read by the status endpoint.
+public class ProcessingJob implements ProcessingListener {
+
+    public enum State {
+        PENDING, RUNNING, COMPLETED, CANCELLED, FAILED;
+
+        public boolean isActive() {
+            return this == PENDING || this == RUNNING;
+        }
+    }
+
+    @Getter
+    private final String id;
+    @Getter
+    private final long fromId;
+    @Getter
+    private final long toId;
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong skipped = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    // Ids of the processed items, used to page through the results of the job
+    private final ProcessedIds processedIds = new ProcessedIds();
+    @Getter
+    private volatile State state = State.PENDING;
+    private volatile boolean cancelRequested;
+    private volatile long total;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    @Getter
+    private volatile String error;
+
+    public ProcessingJob(String id, long fromId, long toId) {
+        this.id = id;
+        this.fromId = fromId;
+        this.toId = toId;
+    }
+
+    public boolean overlaps(long otherFromId, long otherToId) {
+        return fromId <= otherToId && otherFromId <= toId;
+    }
+
+    public boolean isActive() {
+        return state.isActive();
+    }
+
+    // Asks the job to stop; chunks that are already running are allowed to commit
+    public void cancel() {
+        cancelRequested = true;
+    }
+
+    void start(long total) {
+        this.total = total;
+        this.startedAt = Instant.now();
+        this.state = State.RUNNING;
+    }
+
+    void finish(Throwable failure) {
+        this.finishedAt = Instant.now();
+        if (failure != null) {
+            this.error = failure.getMessage();
+            this.state = State.FAILED;
+        } else {
+            this.state = cancelRequested ? State.CANCELLED : State.COMPLETED;
+        }
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return cancelRequested;
+    }
+
+    @Override
+    public void chunkProcessed(List<Item> items, int skippedItems) {
+        processedIds.add(items);
+        processed.addAndGet(items.size());
+        skipped.addAndGet(skippedItems);
+    }
+
+    @Override
+    public void chunkFailed(List<Long> ids, Exception failure) {
+        failed.addAndGet(ids.size());
+    }
+
+    public long getProcessedCount() {
+        return processedIds.size();
+    }
+
+    // Ids of the processed items in [offset, offset + limit)
+    public List<Long> getProcessedIds(int offset, int limit) {
+        return processedIds.get(offset, limit);
+    }
+
+    public ProcessingJobStatus toStatus() {
+        long done = processed.get();
+        long remaining = Math.max(0, total - done - skipped.get() - failed.get());
+        if (!state.isActive()) {
+            remaining = state == State.COMPLETED ? 0 : remaining;
+        }
+        double rate = 0;
+        Long eta = null;
+        if (startedAt != null) {
+            Instant end = finishedAt != null ? finishedAt : Instant.now();
+            double seconds = Duration.between(startedAt, end).toMillis() / 1000.0;
+            rate = seconds > 0 ? done / seconds : 0;
+            if (state.isActive() && rate > 0) {
+                eta = (long) Math.ceil(remaining / rate);
+            }
+        }
+        return new ProcessingJobStatus(id, state.name(), fromId, toId, total, done, skipped.get(), failed.get(),
+                remaining, rate, eta, startedAt, finishedAt);
+    }
+}
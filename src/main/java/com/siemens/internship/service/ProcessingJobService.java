@@ -0,0 +1,88 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.dto.ProcessingJobResults;
+import com.siemens.internship.repository.ItemRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executor;
+
+// Starts processing runs in the background and keeps track of them, so callers get a job id
+// right away instead of waiting for the whole run on a request thread.
+@Service
+public class ProcessingJobService {
+    // Finished jobs kept around so their status and results can still be fetched
+    static final int MAX_FINISHED_JOBS = 100;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    @Qualifier("processingJobExecutor")
+    Executor jobExecutor;
+
+    // Guarded by "this"; insertion order is used to drop the oldest finished jobs first
+    private final Map<String, ProcessingJob> jobs = new LinkedHashMap<>();
+
+    // Starts a job over [fromId, toId]. Returns empty when another active job already works on part of that slice.
+    public synchronized Optional<ProcessingJob> start(long fromId, long toId) {
+        boolean overlapping = jobs.values().stream()
+                .anyMatch(job -> job.isActive() && job.overlaps(fromId, toId));
+        if (overlapping) {
+            return Optional.empty();
+        }
+        evictFinishedJobs();
+
+        ProcessingJob job = new ProcessingJob(UUID.randomUUID().toString(), fromId, toId);
+        jobExecutor.execute(() -> run(job));
+        jobs.put(job.getId(), job);
+        return Optional.of(job);
+    }
+
+    public synchronized Optional<ProcessingJob> find(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    public Optional<ProcessingJob> cancel(String jobId) {
+        Optional<ProcessingJob> job = find(jobId);
+        job.ifPresent(ProcessingJob::cancel);
+        return job;
+    }
+
+    public ProcessingJobResults results(ProcessingJob job, int page, int size) {
+        List<Long> ids = job.getProcessedIds(Math.multiplyExact(page, size), size);
+        return new ProcessingJobResults(job.getId(), page, size, job.getProcessedCount(), itemService.findAllById(ids));
+    }
+
+    private void run(ProcessingJob job) {
+        try {
+            job.start(itemRepository.countUnprocessedInRange(job.getFromId(), job.getToId()));
+            // The job keeps the ids itself; the entities are not needed after their chunk
+            itemService.processRangeSummary(job.getFromId() - 1, job.getToId(), job).join();
+            job.finish(null);
+        } catch (Exception e) {
+            job.finish(e);
+        }
+    }
+
+    private void evictFinishedJobs() {
+        long finished = jobs.values().stream().filter(job -> !job.isActive()).count();
+        Iterator<ProcessingJob> iterator = jobs.values().iterator();
+        while (finished >= MAX_FINISHED_JOBS && iterator.hasNext()) {
+            if (!iterator.next().isActive()) {
+                iterator.remove();
+                finished--;
+            }
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.config.ItemProcessingProperties;
+import com.siemens.internship.repository.ProcessingLeaseRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.UUID;
+
+// Leases of id partitions of the item table, held by the processing runs of this application instance
+// (see ProcessingLease).
+// Expiry is compared against the clock of the instance, so the lease duration must also cover clock skew.
+@Slf4j
+@Service
+public class ProcessingLeaseService {
+
+    @Autowired
+    private ProcessingLeaseRepository leaseRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    ItemProcessingProperties processingProperties;
+
+    // Identifies this instance in the owners of its leases
+    @Getter
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    void init() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        // Every lease change commits on its own, whatever transaction the caller is in
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Owner token of one processing run: runs on the same instance must not renew or release each other's leases
+    public String newOwner() {
+        return instanceId + ":" + UUID.randomUUID();
+    }
+
+    // Takes or renews the lease of the partition for the owner. False if another run holds it.
+    public boolean tryClaim(String owner, long partitionId) {
+        Instant now = Instant.now();
+        Instant expiresAt = now.plus(processingProperties.getPartitioning().getLeaseDuration());
+        Integer claimed = transactionTemplate.execute(status -> leaseRepository.claim(partitionId, owner, now, expiresAt));
+        if (claimed > 0) {
+            return true;
+        }
+        if (leaseRepository.existsById(partitionId)) {
+            return false;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> leaseRepository.insert(partitionId, owner, expiresAt));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            // Another run created the lease first
+            log.debug("Lease of partition {} was taken by another run", partitionId);
+            return false;
+        }
+    }
+
+    // Lets the partitions be taken by another run right away
+    public void release(String owner, Collection<Long> partitionIds) {
+        if (!partitionIds.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> leaseRepository.release(partitionIds, owner, Instant.now()));
+        }
+    }
+}
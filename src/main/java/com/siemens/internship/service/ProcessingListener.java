@@ -0,0 +1,27 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.model.Item;
+
+import java.util.List;
+
+// Callbacks of the processing engine for a single run. They are invoked from worker
+// threads, so implementations must be thread-safe.
+public interface ProcessingListener {
+
+    // Listener for runs nobody is observing
+    ProcessingListener NONE = new ProcessingListener() {
+    };
+
+    // Checked before every chunk is read and before every chunk is processed
+    default boolean isCancelled() {
+        return false;
+    }
+
+    // A chunk was committed; skipped are the items that turned out to be processed already
+    default void chunkProcessed(List<Item> processed, int skipped) {
+    }
+
+    // A chunk could not be committed, none of its items were changed
+    default void chunkFailed(List<Long> ids, Exception error) {
+    }
+}
@@ -0,0 +1,167 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.config.ItemProcessingProperties;
+import com.siemens.internship.model.Item;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.Readable;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+// Non-blocking counterpart of ItemService used in the "reactive" profile. It talks to the same item
+// table through R2DBC, so a few event-loop threads can serve many slow clients at once.
+@Service
+@Profile("reactive")
+public class ReactiveItemService {
+    private static final String COLUMNS = "id, name, description, status, email, version, created_at, updated_at";
+    private static final String UNPROCESSED = "(status is null or upper(status) <> 'PROCESSED')";
+
+    @Autowired
+    private DatabaseClient databaseClient;
+
+    @Autowired
+    private ConnectionFactory connectionFactory;
+
+    @Autowired
+    private ItemCache itemCache;
+
+    @Autowired
+    private ItemProcessingProperties processingProperties;
+
+    public Flux<Item> findAll() {
+        return databaseClient.sql("select " + COLUMNS + " from item order by id")
+                .map(ReactiveItemService::toItem)
+                .all();
+    }
+
+    public Mono<Item> findById(Long id) {
+        return databaseClient.sql("select " + COLUMNS + " from item where id = :id")
+                .bind("id", id)
+                .map(ReactiveItemService::toItem)
+                .one();
+    }
+
+    // Takes the id from the same sequence Hibernate uses; a value fetched here is never inside
+    // a block Hibernate's pooled optimizer hands out, so both paths can insert side by side
+    public Mono<Item> create(Item item) {
+        return databaseClient.sql("select next value for item_seq")
+                .map(row -> row.get(0, Long.class))
+                .one()
+                .flatMap(id -> {
+                    item.setId(id);
+                    return bindColumns(databaseClient.sql("insert into item (" + COLUMNS + ") " +
+                            "values (:id, :name, :description, :status, :email, 0, current_timestamp, current_timestamp)"), item)
+                            .fetch().rowsUpdated()
+                            .then(findById(id));
+                });
+    }
+
+    // Writes the item only if it still has the expected version, like a JPA update of a versioned entity.
+    // Fails with an OptimisticLockingFailureException when it was changed or deleted in the meantime.
+    public Mono<Item> update(Long id, Item item, long expectedVersion) {
+        item.setId(id);
+        return bindColumns(databaseClient.sql("update item set name = :name, description = :description, " +
+                "status = :status, email = :email, version = version + 1, updated_at = current_timestamp " +
+                "where id = :id and version = :version"), item)
+                .bind("version", expectedVersion)
+                .fetch().rowsUpdated()
+                .flatMap(updated -> updated > 0 ? Mono.just(updated) : Mono.error(
+                        new OptimisticLockingFailureException("Item " + id + " no longer has version " + expectedVersion)))
+                .doOnNext(updated -> itemCache.evict(List.of(id)))
+                .flatMap(updated -> findById(id));
+    }
+
+    // True when an item was deleted
+    public Mono<Boolean> deleteById(Long id) {
+        return databaseClient.sql("delete from item where id = :id")
+                .bind("id", id)
+                .fetch().rowsUpdated()
+                .map(deleted -> deleted > 0)
+                .doOnNext(deleted -> itemCache.evict(List.of(id)));
+    }
+
+    // Deletes the item only if it still has the expected version; fails with an
+    // OptimisticLockingFailureException otherwise
+    public Mono<Void> deleteById(Long id, long expectedVersion) {
+        return databaseClient.sql("delete from item where id = :id and version = :version")
+                .bind("id", id)
+                .bind("version", expectedVersion)
+                .fetch().rowsUpdated()
+                .flatMap(deleted -> deleted > 0 ? Mono.<Void>empty() : Mono.error(
+                        new OptimisticLockingFailureException("Item " + id + " no longer has version " + expectedVersion)))
+                .doFinally(signal -> itemCache.evict(List.of(id)));
+    }
+
+    // Reactive processing pipeline: keyset pages of unprocessed ids are only read when downstream asks
+    // for them, and at most items.processing.parallelism chunks are being updated at the same time.
+    public Flux<Item> processItems() {
+        int chunkSize = processingProperties.getChunkSize();
+        TransactionalOperator transactional = TransactionalOperator.create(new R2dbcTransactionManager(connectionFactory));
+        return readUnprocessedIds(0L, chunkSize)
+                .expand(ids -> ids.size() < chunkSize ? Mono.empty() : readUnprocessedIds(ids.get(ids.size() - 1), chunkSize))
+                .filter(ids -> !ids.isEmpty())
+                .flatMap(ids -> processChunk(ids).as(transactional::transactional), processingProperties.getParallelism());
+    }
+
+    private Mono<List<Long>> readUnprocessedIds(long afterId, int chunkSize) {
+        return databaseClient.sql("select id from item where id > :afterId and " + UNPROCESSED + " order by id limit :limit")
+                .bind("afterId", afterId)
+                .bind("limit", chunkSize)
+                .map(row -> row.get("id", Long.class))
+                .all()
+                .collectList();
+    }
+
+    // Locks the chunk's unprocessed rows, marks them processed and emits them with their new state
+    private Flux<Item> processChunk(List<Long> ids) {
+        return databaseClient.sql("select id from item where id in (:ids) and " + UNPROCESSED + " for update")
+                .bind("ids", ids)
+                .map(row -> row.get("id", Long.class))
+                .all()
+                .collectList()
+                .flatMapMany(unprocessed -> unprocessed.isEmpty() ? Flux.empty() : databaseClient
+                        .sql("update item set status = 'PROCESSED', version = version + 1, updated_at = current_timestamp " +
+                                "where id in (:ids)")
+                        .bind("ids", unprocessed)
+                        .fetch().rowsUpdated()
+                        .doOnNext(updated -> itemCache.evict(ids))
+                        .thenMany(databaseClient.sql("select " + COLUMNS + " from item where id in (:ids) order by id")
+                                .bind("ids", unprocessed)
+                                .map(ReactiveItemService::toItem)
+                                .all()));
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindColumns(DatabaseClient.GenericExecuteSpec spec, Item item) {
+        spec = spec.bind("id", item.getId())
+                .bind("name", item.getName())
+                .bind("email", item.getEmail());
+        spec = bindNullable(spec, "description", item.getDescription());
+        return bindNullable(spec, "status", item.getStatus());
+    }
+
+    private static DatabaseClient.GenericExecuteSpec bindNullable(DatabaseClient.GenericExecuteSpec spec, String name, String value) {
+        return value == null ? spec.bindNull(name, String.class) : spec.bind(name, value);
+    }
+
+    private static Item toItem(Readable row) {
+        Item item = new Item(row.get("id", Long.class), row.get("name", String.class), row.get("description", String.class),
+                row.get("status", String.class), row.get("email", String.class), row.get("version", Long.class));
+        item.setCreatedAt(toInstant(row.get("created_at", OffsetDateTime.class)));
+        item.setUpdatedAt(toInstant(row.get("updated_at", OffsetDateTime.class)));
+        return item;
+    }
+
+    private static Instant toInstant(OffsetDateTime value) {
+        return value == null ? null : value.toInstant();
+    }
+}
@@ -0,0 +1,20 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.model.Item;
+import lombok.Getter;
+
+import java.util.List;
+
+// Thrown by a pipeline stage that could not apply some items of its batch because their rows changed since
+// they were loaded: passed go on to the next stage, and the pipeline runs the stale ids again from the start
+@Getter
+public class StaleItemsException extends RuntimeException {
+    private final List<Item> passed;
+    private final List<Long> ids;
+
+    public StaleItemsException(List<Item> passed, List<Long> ids) {
+        super(ids.size() + " items changed since they were loaded");
+        this.passed = passed;
+        this.ids = ids;
+    }
+}
@@ -0,0 +1,41 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.dto.ProcessingSummary;
+import com.siemens.internship.model.Item;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+// Collects the counts and ids of a run while passing every callback on to the run's own listener
+class SummaryListener implements ProcessingListener {
+    private final ProcessingListener delegate;
+    private final ProcessedIds processedIds = new ProcessedIds();
+    private final LongAdder skipped = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    SummaryListener(ProcessingListener delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return delegate.isCancelled();
+    }
+
+    @Override
+    public void chunkProcessed(List<Item> processed, int skippedItems) {
+        processedIds.add(processed);
+        skipped.add(skippedItems);
+        delegate.chunkProcessed(processed, skippedItems);
+    }
+
+    @Override
+    public void chunkFailed(List<Long> ids, Exception error) {
+        failed.add(ids.size());
+        delegate.chunkFailed(ids, error);
+    }
+
+    ProcessingSummary toSummary() {
+        return new ProcessingSummary(processedIds.size(), skipped.sum(), failed.sum(), processedIds.toArray());
+    }
+}
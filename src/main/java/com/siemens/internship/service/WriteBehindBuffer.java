@@ -0,0 +1,385 @@
+package com.siemens.internship.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.siemens.internship.config.ItemWriteBehindProperties;
+import com.siemens.internship.model.Item;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Write-behind mode of ItemService.save for updates of existing items ("items.write-behind.*").
+// An update is acknowledged once it is buffered: repeated updates of the same item are coalesced into a single
+// row write, and the buffer is written in JDBC batches when batch-size items are waiting or every flush-interval.
+// findById sees buffered updates (read-your-writes); lists, searches and processing runs see them once flushed.
+// On a graceful shutdown the buffer is flushed after the web server has stopped taking requests; whatever cannot
+// be written is saved to the spill file, which is written to the database before the next start completes.
+@Slf4j
+@Component
+public class WriteBehindBuffer implements SmartLifecycle {
+    static final String PENDING_METRIC = "items.write-behind.pending";
+    static final String FLUSHED_METRIC = "items.write-behind.flushed";
+    static final String DROPPED_METRIC = "items.write-behind.dropped";
+    static final String CONFLICT_METRIC = "items.write-behind.conflicts";
+
+    // The row is only written if it still has the version the buffered updates were based on, and gets the version
+    // of the last of them, so it ends up where the ETags handed out predicted
+    private static final String UPDATE_SQL = "update item set name = ?, description = ?, status = ?, email = ?, " +
+            "version = ?, updated_at = ? where id = ? and version = ?";
+
+    @Autowired
+    private ItemWriteBehindProperties properties;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ItemCache itemCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final Object lock = new Object();
+    // Updates waiting for a flush, in arrival order
+    private final Map<Long, PendingWrite> pending = new LinkedHashMap<>();
+    // Updates of the batch being written; still served by find until their transaction has committed
+    private final Map<Long, PendingWrite> flushing = new HashMap<>();
+    // Flushes run one at a time, so the writes of an item reach the database in order
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+
+    private ScheduledExecutorService flusher;
+    private TransactionTemplate transactionTemplate;
+    private Counter flushed;
+    private Counter dropped;
+    private Counter conflicts;
+    private volatile boolean running;
+
+    // A buffered update: the latest state of the item and the version of the row it was based on
+    record PendingWrite(Item item, long baseVersion) {
+    }
+
+    public boolean isAccepting() {
+        return properties.isEnabled() && running;
+    }
+
+    // Buffers an update of an existing item and returns it with the version it will have once written.
+    // The version check of optimistic locking is done against the buffered state, or against the row
+    // for an item without buffered updates; the flush checks the row again.
+    public Item write(Item item) {
+        if (pendingCount() >= properties.getMaxPending()) {
+            flush();
+        }
+        Long rowVersion = find(item.getId()).isPresent() ? null : rowVersion(item.getId());
+        int waiting;
+        synchronized (lock) {
+            PendingWrite previous = pending.get(item.getId());
+            PendingWrite latest = previous != null ? previous : flushing.get(item.getId());
+            Long current = latest != null ? latest.item().getVersion() : rowVersion;
+            if (current == null || !current.equals(item.getVersion())) {
+                throw new ObjectOptimisticLockingFailureException(Item.class, item.getId());
+            }
+            long baseVersion = previous != null ? previous.baseVersion() : item.getVersion();
+            item.setVersion(item.getVersion() + 1);
+            item.setUpdatedAt(Instant.now());
+            pending.put(item.getId(), new PendingWrite(item, baseVersion));
+            waiting = pending.size();
+        }
+        if (waiting >= properties.getBatchSize() && flushRequested.compareAndSet(false, true)) {
+            try {
+                flusher.execute(this::flushQuietly);
+            } catch (RejectedExecutionException e) {
+                // Shutting down: the final flush in stop() writes it
+            }
+        }
+        return item;
+    }
+
+    // The buffered state of the item, if an update of it has not been written yet
+    public Optional<Item> find(Long id) {
+        synchronized (lock) {
+            PendingWrite write = pending.get(id);
+            if (write == null) {
+                write = flushing.get(id);
+            }
+            return Optional.ofNullable(write).map(PendingWrite::item);
+        }
+    }
+
+    // Writes the buffered update of the item, if there is one, before the caller goes to the database directly
+    public void flush(Long id) {
+        flush(List.of(id));
+    }
+
+    // Same for several items: processing paths call it before they read or change the rows, so their
+    // version bump does not make an acknowledged update lose at its flush
+    public void flush(Collection<Long> ids) {
+        boolean buffered = false;
+        synchronized (lock) {
+            if (pending.isEmpty() && flushing.isEmpty()) {
+                return;
+            }
+            for (Long id : ids) {
+                if (pending.containsKey(id) || flushing.containsKey(id)) {
+                    buffered = true;
+                    break;
+                }
+            }
+        }
+        if (buffered) {
+            flush();
+        }
+    }
+
+    // Null when the item does not exist
+    private Long rowVersion(Long id) {
+        List<Long> versions = jdbcTemplate.queryForList("select version from item where id = ?", Long.class, id);
+        return versions.isEmpty() ? null : versions.get(0);
+    }
+
+    public int pendingCount() {
+        synchronized (lock) {
+            return pending.size();
+        }
+    }
+
+    // Writes everything buffered so far, batch by batch. A batch that fails goes back into the buffer.
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<PendingWrite> batch;
+            while (!(batch = drain()).isEmpty()) {
+                try {
+                    writeBatch(batch);
+                    release(batch, false);
+                } catch (RuntimeException e) {
+                    release(batch, true);
+                    throw e;
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushQuietly() {
+        flushRequested.set(false);
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Write-behind flush failed, {} items stay buffered", pendingCount(), e);
+        }
+    }
+
+    private List<PendingWrite> drain() {
+        synchronized (lock) {
+            List<PendingWrite> batch = new ArrayList<>(Math.min(pending.size(), properties.getBatchSize()));
+            Iterator<PendingWrite> writes = pending.values().iterator();
+            while (writes.hasNext() && batch.size() < properties.getBatchSize()) {
+                PendingWrite write = writes.next();
+                writes.remove();
+                flushing.put(write.item().getId(), write);
+                batch.add(write);
+            }
+            return batch;
+        }
+    }
+
+    // Takes a written batch out of the buffer, or puts a failed one back, merged with the updates buffered since
+    private void release(List<PendingWrite> batch, boolean failed) {
+        synchronized (lock) {
+            for (PendingWrite write : batch) {
+                Long id = write.item().getId();
+                flushing.remove(id);
+                if (failed) {
+                    PendingWrite newer = pending.get(id);
+                    pending.put(id, newer == null ? write : new PendingWrite(newer.item(), write.baseVersion()));
+                }
+            }
+        }
+    }
+
+    private void writeBatch(List<PendingWrite> batch) {
+        int[] counts = transactionTemplate.execute(status -> jdbcTemplate.batchUpdate(UPDATE_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement statement, int i) throws SQLException {
+                Item item = batch.get(i).item();
+                statement.setString(1, item.getName());
+                statement.setString(2, item.getDescription());
+                statement.setString(3, item.getStatus());
+                statement.setString(4, item.getEmail());
+                statement.setLong(5, item.getVersion());
+                statement.setTimestamp(6, Timestamp.from(item.getUpdatedAt()));
+                statement.setLong(7, item.getId());
+                statement.setLong(8, batch.get(i).baseVersion());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return batch.size();
+            }
+        }));
+        List<Long> notWritten = new ArrayList<>();
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                notWritten.add(batch.get(i).item().getId());
+            }
+        }
+        if (!notWritten.isEmpty()) {
+            reportNotWritten(notWritten);
+        }
+        flushed.increment(batch.size() - notWritten.size());
+    }
+
+    // An update finds no row when the item was deleted in the meantime, or a row with another version when the
+    // item was changed by a writer outside this application since the update was buffered (processing runs and
+    // bulk updates flush the buffer first). Either way the change in the database wins; the cached state of the
+    // items is stale.
+    private void reportNotWritten(List<Long> ids) {
+        itemCache.evict(ids);
+        List<Long> existing = jdbcTemplate.queryForList("select id from item where id in (" +
+                String.join(",", Collections.nCopies(ids.size(), "?")) + ")", Long.class, ids.toArray());
+        List<Long> deleted = ids.stream().filter(id -> !existing.contains(id)).toList();
+        if (!existing.isEmpty()) {
+            log.warn("Dropped buffered updates of {} items changed in the meantime: {}", existing.size(), existing);
+            conflicts.increment(existing.size());
+        }
+        if (!deleted.isEmpty()) {
+            log.warn("Dropped buffered updates of {} deleted items: {}", deleted.size(), deleted);
+            dropped.increment(deleted.size());
+        }
+    }
+
+    @Override
+    public void start() {
+        if (properties.isEnabled()) {
+            transactionTemplate = new TransactionTemplate(transactionManager);
+            // Flushes may be triggered from inside a caller's transaction and must commit on their own
+            transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            flushed = meterRegistry.counter(FLUSHED_METRIC);
+            dropped = meterRegistry.counter(DROPPED_METRIC);
+            conflicts = meterRegistry.counter(CONFLICT_METRIC);
+            Gauge.builder(PENDING_METRIC, this, WriteBehindBuffer::pendingCount).register(meterRegistry);
+
+            replaySpillFile();
+            long interval = properties.getFlushInterval().toMillis();
+            flusher = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("write-behind").daemon().factory());
+            flusher.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (flusher == null) {
+            return;
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(properties.getFlushInterval().toMillis() + 30_000, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Final write-behind flush failed, spilling {} items to {}", pendingCount(), properties.getSpillFile(), e);
+            spill();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    // Stops after the web server (DEFAULT_PHASE - 2048), so no request can buffer an update after the final
+    // flush, and starts before it, so spilled updates are written before requests are served
+    @Override
+    public int getPhase() {
+        return SmartLifecycle.DEFAULT_PHASE - 4096;
+    }
+
+    // Saves the buffered updates as NDJSON, replacing any previous spill file
+    void spill() {
+        List<PendingWrite> writes;
+        synchronized (lock) {
+            writes = new ArrayList<>(pending.values());
+        }
+        Path file = properties.getSpillFile();
+        try (BufferedWriter out = Files.newBufferedWriter(file);
+             SequenceWriter sequence = objectMapper.writerFor(PendingWrite.class).withRootValueSeparator("\n").writeValues(out)) {
+            sequence.writeAll(writes);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not spill buffered item updates to " + file, e);
+        }
+    }
+
+    // Writes the updates spilled by the previous shutdown; the start fails (and the file is kept) if they cannot be
+    void replaySpillFile() {
+        Path file = properties.getSpillFile();
+        if (!Files.exists(file)) {
+            return;
+        }
+        int replayed = 0;
+        try (MappingIterator<PendingWrite> writes = objectMapper.readerFor(PendingWrite.class).readValues(file.toFile())) {
+            synchronized (lock) {
+                while (writes.hasNext()) {
+                    PendingWrite write = writes.next();
+                    // Timestamps are not part of the JSON form of an item
+                    write.item().setUpdatedAt(Instant.now());
+                    pending.put(write.item().getId(), write);
+                    replayed++;
+                }
+            }
+            flush();
+            Files.delete(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not replay spilled item updates from " + file, e);
+        }
+        log.info("Replayed {} spilled item updates from {}", replayed, file);
+    }
+}
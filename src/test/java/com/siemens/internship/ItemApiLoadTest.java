@@ -0,0 +1,107 @@
+package com.siemens.internship;
+
+import com.siemens.internship.model.Item;
+import com.siemens.internship.repository.ItemRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Compares the servlet and the reactive mode of /api/items under many concurrent clients.
+// Runs only with -Pload-test; the numbers are written to target/load-test-report.txt.
+@Tag("load")
+class ItemApiLoadTest {
+    private static final int ITEMS = 2_000;
+    private static final int CLIENTS = 500;
+    private static final int REQUESTS_PER_CLIENT = 20;
+    // Every tenth request reads a page of the whole table, the rest read single items
+    private static final int LIST_EVERY = 10;
+
+    @Test
+    void compareServletAndReactiveModes() throws Exception {
+        String servlet = run("servlet");
+        String reactive = run("reactive");
+        Files.writeString(Path.of("target", "load-test-report.txt"),
+                "clients=" + CLIENTS + " requests/client=" + REQUESTS_PER_CLIENT + " items=" + ITEMS + "\n"
+                        + servlet + "\n" + reactive + "\n");
+    }
+
+    private String run(String mode) throws Exception {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(InternshipApplication.class)
+                .properties("server.port=0",
+                        "spring.datasource.url=jdbc:h2:mem:load-" + mode,
+                        "spring.r2dbc.url=r2dbc:h2:mem:///load-" + mode,
+                        "logging.level.root=WARN");
+        if (mode.equals("reactive")) {
+            builder.profiles("reactive");
+        }
+        try (ConfigurableApplicationContext context = builder.run()) {
+            context.getBean(ItemRepository.class).saveAll(LongStream.rangeClosed(1, ITEMS)
+                    .mapToObj(i -> new Item(null, "Item" + i, "Description" + i, null, "item" + i + "@example.com"))
+                    .toList());
+            List<Long> ids = context.getBean(ItemRepository.class).findAll().stream().map(Item::getId).toList();
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/items";
+
+            // Warm-up so both modes are measured with JIT-compiled code
+            drive(baseUrl, ids, 50, 10);
+            long start = System.nanoTime();
+            List<Long> latencies = drive(baseUrl, ids, CLIENTS, REQUESTS_PER_CLIENT);
+            double seconds = (System.nanoTime() - start) / 1e9;
+
+            assertThat(latencies).hasSize(CLIENTS * REQUESTS_PER_CLIENT);
+            Collections.sort(latencies);
+            return String.format("%-8s throughput=%.0f req/s p50=%.1f ms p99=%.1f ms max=%.1f ms",
+                    mode, latencies.size() / seconds, percentile(latencies, 0.50), percentile(latencies, 0.99),
+                    latencies.get(latencies.size() - 1) / 1e6);
+        }
+    }
+
+    // Each client runs on its own virtual thread and sends its requests one after another
+    private List<Long> drive(String baseUrl, List<Long> ids, int clients, int requestsPerClient) throws Exception {
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        try (HttpClient http = HttpClient.newHttpClient();
+             ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int client = 0; client < clients; client++) {
+                futures.add(executor.submit(() -> {
+                    for (int request = 0; request < requestsPerClient; request++) {
+                        String url = request % LIST_EVERY == 0 ? baseUrl
+                                : baseUrl + "/" + ids.get(ThreadLocalRandom.current().nextInt(ids.size()));
+                        long sent = System.nanoTime();
+                        HttpResponse<Void> response = http.send(HttpRequest.newBuilder(URI.create(url)).build(),
+                                HttpResponse.BodyHandlers.discarding());
+                        assertThat(response.statusCode()).isEqualTo(200);
+                        latencies.add(System.nanoTime() - sent);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        return latencies;
+    }
+
+    private static double percentile(List<Long> sorted, double percentile) {
+        return sorted.get((int) Math.ceil(percentile * sorted.size()) - 1) / 1e6;
+    }
+}
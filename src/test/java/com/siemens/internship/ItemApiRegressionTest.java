@@ -0,0 +1,230 @@
+package com.siemens.internship;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Performance regression suite of /api/items: drives CRUD, keyset pages and a processing run against the
+// application on a random port, writes throughput and p50/p99 latency per scenario to
+// target/api-load-test-report.txt and fails when a scenario is worse than the stored baseline
+// (src/test/resources/api-load-baseline.properties) by more than the tolerance.
+// Runs only with -Pload-test; concurrency, volume and tolerance are set there (load-test.* properties).
+// -Dload-test.write-baseline=true records the measured numbers as the new baseline instead of comparing.
+@Tag("load")
+class ItemApiRegressionTest {
+    private static final Path BASELINE = Path.of("src", "test", "resources", "api-load-baseline.properties");
+    private static final Path REPORT = Path.of("target", "api-load-test-report.txt");
+
+    private final int clients = Integer.getInteger("load-test.clients", 50);
+    // Requests per CRUD and list scenario, shared by all clients
+    private final int requests = Integer.getInteger("load-test.requests", 5_000);
+    // Items in the table before the scenarios start, read by the list scenario and processed by /process
+    private final int items = Integer.getInteger("load-test.items", 20_000);
+    private final double tolerance = Double.parseDouble(System.getProperty("load-test.tolerance", "0.3"));
+    private final boolean writeBaseline = Boolean.getBoolean("load-test.write-baseline");
+
+    private HttpClient http;
+    private String baseUrl;
+
+    @Test
+    void apiPerformanceDoesNotRegress() throws Exception {
+        List<Result> results = new ArrayList<>();
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(InternshipApplication.class)
+                .run("--server.port=0", "--spring.datasource.url=jdbc:h2:mem:api-regression", "--logging.level.root=WARN");
+             HttpClient client = HttpClient.newHttpClient()) {
+            http = client;
+            baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/items";
+            seed();
+            // Warm-up so every scenario is measured with JIT-compiled code
+            drive("warm-up", Math.min(requests, 1_000), i -> get(baseUrl + "/" + randomId(), 200));
+
+            ConcurrentLinkedQueue<Long> created = new ConcurrentLinkedQueue<>();
+            results.add(drive("create", requests, i -> created.add(create(i))));
+            List<Long> ids = new ArrayList<>(created);
+            results.add(drive("read", requests, i -> get(baseUrl + "/" + randomId(), 200)));
+            // Every request updates its own item, so no update is rejected as a conflict
+            results.add(drive("update", requests, i -> update(ids.get(i))));
+            results.add(drive("list", requests, i -> get(baseUrl + "?limit=100&after=" + randomId(), 200)));
+            results.add(drive("delete", requests, i -> send(HttpRequest.newBuilder(URI.create(baseUrl + "/" + ids.get(i)))
+                    .DELETE().build(), 204)));
+            results.add(process());
+        }
+
+        StringBuilder report = new StringBuilder(String.format("%s tolerance=%.0f%%%n", settings(), tolerance * 100));
+        results.forEach(result -> report.append(result).append('\n'));
+        if (writeBaseline) {
+            writeBaseline(results);
+        }
+        List<String> regressions = writeBaseline ? List.of() : compareWithBaseline(results, report);
+        regressions.forEach(regression -> report.append("REGRESSION ").append(regression).append('\n'));
+        Files.writeString(REPORT, report);
+        assertThat(regressions).as("Scenarios worse than %s", BASELINE).isEmpty();
+    }
+
+    // Inserts the initial items through the NDJSON bulk endpoint
+    private void seed() throws Exception {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < items; i++) {
+            body.append("{\"name\":\"Item").append(i).append("\",\"description\":\"Description").append(i)
+                    .append("\",\"email\":\"item").append(i).append("@example.com\"}\n");
+        }
+        send(HttpRequest.newBuilder(URI.create(baseUrl + "/batch")).header("Content-Type", "application/x-ndjson")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString())).build(), 201);
+    }
+
+    // Sends count requests from the configured number of clients; each client runs on its own virtual thread
+    // and takes the next request number as soon as its previous request is answered
+    private Result drive(String scenario, int count, Request request) throws Exception {
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>(count));
+        AtomicInteger next = new AtomicInteger();
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int client = 0; client < clients; client++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = next.getAndIncrement(); i < count; i = next.getAndIncrement()) {
+                        long sent = System.nanoTime();
+                        request.send(i);
+                        latencies.add(System.nanoTime() - sent);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        return new Result(scenario, latencies, (System.nanoTime() - start) / 1e9);
+    }
+
+    // A single processing run over the whole table; its throughput is counted in items per second
+    private Result process() throws Exception {
+        long start = System.nanoTime();
+        String body = send(HttpRequest.newBuilder(URI.create(baseUrl + "/process?summary=true")).build(), 200);
+        long elapsed = System.nanoTime() - start;
+        assertThat(body).contains("\"processed\":" + items);
+        return new Result("process", List.of(elapsed), elapsed / 1e9, items);
+    }
+
+    private long create(int i) throws IOException, InterruptedException {
+        String body = send(HttpRequest.newBuilder(URI.create(baseUrl)).header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"name\":\"New" + i + "\",\"description\":\"Description" + i
+                        + "\",\"email\":\"new" + i + "@example.com\"}")).build(), 201);
+        return Long.parseLong(body.replaceFirst("^\\{\"id\":(\\d+).*", "$1").trim());
+    }
+
+    private void update(long id) throws IOException, InterruptedException {
+        send(HttpRequest.newBuilder(URI.create(baseUrl + "/" + id)).header("Content-Type", "application/json")
+                .PUT(HttpRequest.BodyPublishers.ofString("{\"name\":\"Updated" + id + "\",\"description\":\"Updated\"," +
+                        "\"email\":\"updated" + id + "@example.com\"}")).build(), 200);
+    }
+
+    private void get(String url, int expectedStatus) throws IOException, InterruptedException {
+        send(HttpRequest.newBuilder(URI.create(url)).build(), expectedStatus);
+    }
+
+    private String send(HttpRequest request, int expectedStatus) throws IOException, InterruptedException {
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        assertThat(response.statusCode()).as("%s %s", request.method(), request.uri()).isEqualTo(expectedStatus);
+        return response.body();
+    }
+
+    // Ids of the seeded items, which the sequence hands out from 1 on
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, items + 1);
+    }
+
+    // Throughput may drop and p99 may grow by the tolerance; scenarios missing from the baseline are not checked.
+    // Numbers measured with other settings than the baseline's are only reported.
+    private List<String> compareWithBaseline(List<Result> results, StringBuilder report) throws IOException {
+        Properties baseline = new Properties();
+        try (Reader reader = Files.newBufferedReader(BASELINE)) {
+            baseline.load(reader);
+        }
+        if (!settings().equals(baseline.getProperty("settings"))) {
+            report.append("Not compared: the baseline was recorded with ").append(baseline.getProperty("settings")).append('\n');
+            return List.of();
+        }
+        List<String> regressions = new ArrayList<>();
+        for (Result result : results) {
+            String throughput = baseline.getProperty(result.scenario() + ".throughput");
+            if (throughput != null && result.throughput() < Double.parseDouble(throughput) * (1 - tolerance)) {
+                regressions.add(String.format("%s throughput=%.0f/s, baseline %s/s", result.scenario(), result.throughput(), throughput));
+            }
+            String p99 = baseline.getProperty(result.scenario() + ".p99");
+            if (p99 != null && result.percentile(0.99) > Double.parseDouble(p99) * (1 + tolerance)) {
+                regressions.add(String.format("%s p99=%.1f ms, baseline %s ms", result.scenario(), result.percentile(0.99), p99));
+            }
+        }
+        return regressions;
+    }
+
+    private void writeBaseline(List<Result> results) throws IOException {
+        Properties baseline = new Properties();
+        baseline.setProperty("settings", settings());
+        for (Result result : results) {
+            baseline.setProperty(result.scenario() + ".throughput", String.format("%.0f", result.throughput()));
+            // A single processing run has no meaningful latency distribution
+            if (!result.scenario().equals("process")) {
+                baseline.setProperty(result.scenario() + ".p99", String.format("%.1f", result.percentile(0.99)));
+            }
+        }
+        try (Writer writer = Files.newBufferedWriter(BASELINE)) {
+            baseline.store(writer, "ItemApiRegressionTest baseline");
+        }
+    }
+
+    private String settings() {
+        return "clients=" + clients + " requests=" + requests + " items=" + items;
+    }
+
+    @FunctionalInterface
+    private interface Request {
+        void send(int i) throws Exception;
+    }
+
+    // Latencies in nanoseconds; operations counts requests, or items for the processing run
+    private record Result(String scenario, List<Long> latencies, double seconds, long operations) {
+
+        Result(String scenario, List<Long> latencies, double seconds) {
+            this(scenario, latencies.stream().sorted().toList(), seconds, latencies.size());
+        }
+
+        double throughput() {
+            return operations / seconds;
+        }
+
+        double percentile(double percentile) {
+            return latencies.get((int) Math.ceil(percentile * latencies.size()) - 1) / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-8s throughput=%.0f/s p50=%.1f ms p99=%.1f ms", scenario, throughput(),
+                    percentile(0.50), percentile(0.99));
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.siemens.internship;
+
+import com.siemens.internship.repository.ItemRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.DefaultApplicationArguments;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:transfer")
+class ItemTransferRunnerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Autowired
+    private ItemTransferRunner itemTransferRunner;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ConfigurableApplicationContext context;
+
+    @Test
+    void testTransferReportsItsExitCodeInsteadOfExiting() throws Exception {
+        Path file = tempDir.resolve("import.csv");
+        Files.writeString(file, "email,name\nnew1@example.com,New1\nnot-an-email,New2\n");
+        itemRepository.deleteAll();
+
+        itemTransferRunner.run(new DefaultApplicationArguments("--items.import=" + file));
+
+        // The context is still running; main is the one that exits
+        assertTrue(context.isActive());
+        assertTrue(itemTransferRunner.isExitRequested());
+        // One record was invalid
+        assertEquals(1, itemTransferRunner.getExitCode());
+    }
+}
@@ -0,0 +1,135 @@
+package com.siemens.internship;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Compares the default persistence settings (in-memory H2, default pool) with the prod profile
+// (file-backed H2, sized pool, statement caching) on bulk inserts, a processing run and concurrent reads.
+// Runs only with -Pload-test; the numbers are written to target/persistence-load-test-report.txt.
+@Tag("load")
+class PersistenceProfileLoadTest {
+    private static final int ITEMS = 50_000;
+    // Items per POST /api/items/batch request, sent by INSERT_CLIENTS clients at once
+    private static final int ITEMS_PER_REQUEST = 1_000;
+    private static final int INSERT_CLIENTS = 4;
+    private static final int READ_CLIENTS = 200;
+    private static final int READS_PER_CLIENT = 50;
+
+    @TempDir
+    Path dataDir;
+
+    @Test
+    void compareDefaultAndProdProfiles() throws Exception {
+        String defaults = run("default");
+        String prod = run("prod");
+        Files.writeString(Path.of("target", "persistence-load-test-report.txt"),
+                "items=" + ITEMS + " read clients=" + READ_CLIENTS + " reads/client=" + READS_PER_CLIENT + "\n"
+                        + defaults + "\n" + prod + "\n");
+    }
+
+    private String run(String profile) throws Exception {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(InternshipApplication.class)
+                .properties("server.port=0",
+                        "items.data-dir=" + dataDir,
+                        "logging.level.root=WARN");
+        if (profile.equals("prod")) {
+            builder.profiles("prod");
+        }
+        try (ConfigurableApplicationContext context = builder.run();
+             HttpClient http = HttpClient.newHttpClient()) {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/items";
+
+            long start = System.nanoTime();
+            insert(http, baseUrl);
+            double insertSeconds = (System.nanoTime() - start) / 1e9;
+
+            start = System.nanoTime();
+            HttpResponse<String> processed = http.send(HttpRequest.newBuilder(URI.create(baseUrl + "/process?summary=true")).build(),
+                    HttpResponse.BodyHandlers.ofString());
+            double processSeconds = (System.nanoTime() - start) / 1e9;
+            assertThat(processed.body()).contains("\"processed\":" + ITEMS);
+
+            // Ids are handed out by the sequence from 1 on
+            start = System.nanoTime();
+            List<Long> latencies = read(http, baseUrl);
+            double readSeconds = (System.nanoTime() - start) / 1e9;
+            Collections.sort(latencies);
+
+            return String.format("%-8s insert=%.0f items/s process=%.0f items/s read=%.0f req/s p50=%.1f ms p99=%.1f ms",
+                    profile, ITEMS / insertSeconds, ITEMS / processSeconds, latencies.size() / readSeconds,
+                    percentile(latencies, 0.50), percentile(latencies, 0.99));
+        }
+    }
+
+    private void insert(HttpClient http, String baseUrl) throws Exception {
+        try (ExecutorService executor = Executors.newFixedThreadPool(INSERT_CLIENTS)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int from = 0; from < ITEMS; from += ITEMS_PER_REQUEST) {
+                StringBuilder body = new StringBuilder();
+                for (int i = from; i < from + ITEMS_PER_REQUEST; i++) {
+                    body.append("{\"name\":\"Item").append(i).append("\",\"description\":\"Description").append(i)
+                            .append("\",\"email\":\"item").append(i).append("@example.com\"}\n");
+                }
+                futures.add(executor.submit(() -> {
+                    HttpResponse<Void> response = http.send(HttpRequest.newBuilder(URI.create(baseUrl + "/batch"))
+                                    .header("Content-Type", "application/x-ndjson")
+                                    .POST(HttpRequest.BodyPublishers.ofString(body.toString())).build(),
+                            HttpResponse.BodyHandlers.discarding());
+                    assertThat(response.statusCode()).isBetween(200, 299);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+    }
+
+    // Each client runs on its own virtual thread and reads random items one after another
+    private List<Long> read(HttpClient http, String baseUrl) throws Exception {
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int client = 0; client < READ_CLIENTS; client++) {
+                futures.add(executor.submit(() -> {
+                    for (int request = 0; request < READS_PER_CLIENT; request++) {
+                        long id = ThreadLocalRandom.current().nextLong(1, ITEMS + 1);
+                        long sent = System.nanoTime();
+                        HttpResponse<Void> response = http.send(HttpRequest.newBuilder(URI.create(baseUrl + "/" + id)).build(),
+                                HttpResponse.BodyHandlers.discarding());
+                        assertThat(response.statusCode()).isEqualTo(200);
+                        latencies.add(System.nanoTime() - sent);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        return latencies;
+    }
+
+    private static double percentile(List<Long> sorted, double percentile) {
+        return sorted.get((int) Math.ceil(percentile * sorted.size()) - 1) / 1e6;
+    }
+}
@@ -0,0 +1,117 @@
+package com.siemens.internship.config;
+
+import com.siemens.internship.config.ItemExecutorProperties.RejectionPolicy;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveTaskExecutorTest {
+
+    @Test
+    void testLimitGrowsWhileTasksStayFast() {
+        AimdLimit limit = new AimdLimit(1, 4, 2.0);
+        assertEquals(2, limit.getLimit());
+
+        // One window is "limit" samples
+        limit.onSample(1_000, false);
+        limit.onSample(1_000, false);
+        assertEquals(3, limit.getLimit());
+
+        for (int i = 0; i < 10; i++) {
+            limit.onSample(1_000, false);
+        }
+        assertEquals(4, limit.getLimit());
+    }
+
+    @Test
+    void testLimitBacksOffOnSlowTasksOrSaturatedPool() {
+        AimdLimit limit = new AimdLimit(1, 8, 2.0);
+        for (int i = 0; i < 4; i++) {
+            limit.onSample(1_000, false);
+        }
+        assertEquals(5, limit.getLimit());
+
+        // Latency far above the best window seen so far
+        for (int i = 0; i < 5; i++) {
+            limit.onSample(10_000, false);
+        }
+        assertEquals(3, limit.getLimit());
+
+        // Fast tasks, but threads were waiting for a connection during the window
+        limit.onSample(1_000, false);
+        limit.onSample(1_000, true);
+        limit.onSample(1_000, false);
+        assertEquals(2, limit.getLimit());
+    }
+
+    @Test
+    void testBlockingPolicyThrottlesProducer() throws Exception {
+        AdaptiveTaskExecutor executor = new AdaptiveTaskExecutor("Test-", new AimdLimit(2, 2, 2.0), () -> 0,
+                RejectionPolicy.BLOCK, Duration.ofSeconds(30));
+        int tasks = 200;
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(tasks);
+
+        // The producer is held back instead of any task being rejected
+        for (int i = 0; i < tasks; i++) {
+            executor.execute(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.yield();
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        assertTrue(maxRunning.get() <= 2);
+        executor.destroy();
+    }
+
+    @Test
+    void testAbortAndCallerRunsPolicies() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AdaptiveTaskExecutor abort = new AdaptiveTaskExecutor("Test-", new AimdLimit(1, 1, 2.0), () -> 0,
+                RejectionPolicy.ABORT, Duration.ofSeconds(30));
+        AdaptiveTaskExecutor callerRuns = new AdaptiveTaskExecutor("Test-", new AimdLimit(1, 1, 2.0), () -> 0,
+                RejectionPolicy.CALLER_RUNS, Duration.ofSeconds(30));
+        abort.execute(() -> await(release));
+        callerRuns.execute(() -> await(release));
+
+        assertThrows(TaskRejectedException.class, () -> abort.execute(() -> { }));
+        Thread[] ranOn = new Thread[1];
+        callerRuns.execute(() -> ranOn[0] = Thread.currentThread());
+        assertSame(Thread.currentThread(), ranOn[0]);
+
+        release.countDown();
+        abort.destroy();
+        callerRuns.destroy();
+    }
+
+    @Test
+    void testBlockingPolicyGivesUpAfterTimeout() {
+        CountDownLatch release = new CountDownLatch(1);
+        AdaptiveTaskExecutor executor = new AdaptiveTaskExecutor("Test-", new AimdLimit(1, 1, 2.0), () -> 0,
+                RejectionPolicy.BLOCK, Duration.ofMillis(50));
+        executor.execute(() -> await(release));
+
+        assertThrows(TaskRejectedException.class, () -> executor.execute(() -> { }));
+
+        release.countDown();
+        executor.destroy();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
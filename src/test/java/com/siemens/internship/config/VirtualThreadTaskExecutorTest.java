@@ -0,0 +1,70 @@
+package com.siemens.internship.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class VirtualThreadTaskExecutorTest {
+
+    @Test
+    void testRunsTasksOnVirtualThreads() throws Exception {
+        VirtualThreadTaskExecutor executor = new VirtualThreadTaskExecutor("Test-", 2);
+        CountDownLatch done = new CountDownLatch(1);
+        boolean[] virtual = new boolean[1];
+
+        executor.execute(() -> {
+            virtual[0] = Thread.currentThread().isVirtual();
+            done.countDown();
+        });
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertTrue(virtual[0]);
+        executor.destroy();
+    }
+
+    @Test
+    void testAcceptsManyTasksButLimitsConcurrency() throws Exception {
+        VirtualThreadTaskExecutor executor = new VirtualThreadTaskExecutor("Test-", 3);
+        int tasks = 5000;
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(tasks);
+
+        // Far more tasks than a bounded queue would accept; none of them may be rejected
+        for (int i = 0; i < tasks; i++) {
+            executor.execute(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.yield();
+                running.decrementAndGet();
+                done.countDown();
+            });
+        }
+
+        assertTrue(done.await(30, TimeUnit.SECONDS));
+        assertTrue(maxRunning.get() <= 3);
+        // The latch is counted down before the last tasks give their permits back
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (executor.getActiveCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(0, executor.getActiveCount());
+        executor.destroy();
+    }
+
+    @Test
+    void testMaxConcurrencyDefaultsToPoolSize() {
+        ItemExecutorProperties properties = new ItemExecutorProperties();
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setMaximumPoolSize(7);
+
+        assertEquals(7, ExecutorConfig.maxConcurrency(properties, dataSource));
+
+        properties.setMaxConcurrency(3);
+        assertEquals(3, ExecutorConfig.maxConcurrency(properties, dataSource));
+    }
+}
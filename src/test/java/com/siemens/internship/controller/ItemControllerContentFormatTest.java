@@ -0,0 +1,96 @@
+package com.siemens.internship.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.siemens.internship.config.ContentFormatConfig;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.service.IncrementalProcessingService;
+import com.siemens.internship.service.ItemBatchService;
+import com.siemens.internship.service.ItemService;
+import com.siemens.internship.service.ProcessingJobService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ItemController.class)
+@Import(ContentFormatConfig.class)
+class ItemControllerContentFormatTest {
+
+    @MockBean
+    private ItemService itemService;
+
+    @MockBean
+    private ItemBatchService itemBatchService;
+
+    @MockBean
+    private ProcessingJobService processingJobService;
+
+    @MockBean
+    private IncrementalProcessingService incrementalProcessingService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        Item item = new Item(1L, "Item1", "Description1", null, "item1@example.com");
+        item.setUpdatedAt(Instant.parse("2025-01-01T00:00:00Z"));
+        when(itemService.findAll()).thenReturn(List.of(item, new Item(2L, "Item2", "Description2", null, "item2@example.com")));
+    }
+
+    @Test
+    void testGetAllItemsDefaultsToJson() throws Exception {
+        mockMvc.perform(get("/api/items").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void testGetAllItemsAsSmile() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/items").accept(ContentFormatConfig.APPLICATION_SMILE_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ContentFormatConfig.APPLICATION_SMILE_VALUE))
+                .andReturn();
+
+        JsonNode items = new ObjectMapper(new SmileFactory()).readTree(result.getResponse().getContentAsByteArray());
+        assertThat(items).hasSize(2);
+        assertThat(items.get(0).get("name").asText()).isEqualTo("Item1");
+        // Written with Boot's Jackson settings, like the JSON responses
+        assertThat(items.get(0).get("updatedAt").asText()).isEqualTo("2025-01-01T00:00:00Z");
+    }
+
+    @Test
+    void testGetAllItemsAsCbor() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/items").accept(ContentFormatConfig.APPLICATION_CBOR_VALUE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(ContentFormatConfig.APPLICATION_CBOR_VALUE))
+                .andReturn();
+
+        Item[] items = new ObjectMapper(new CBORFactory()).findAndRegisterModules()
+                .readValue(result.getResponse().getContentAsByteArray(), Item[].class);
+        assertThat(items).extracting(Item::getId).containsExactly(1L, 2L);
+    }
+
+    @Test
+    void testUnsupportedFormatIsNotAcceptable() throws Exception {
+        mockMvc.perform(get("/api/items").accept("application/x-protobuf"))
+                .andExpect(status().isNotAcceptable());
+    }
+}
@@ -1,20 +1,50 @@
 package com.siemens.internship.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.siemens.internship.dto.BatchItemResult;
+import com.siemens.internship.dto.BatchItemResult.Outcome;
+import com.siemens.internship.dto.BatchResult;
+import com.siemens.internship.dto.BulkProcessingResult;
+import com.siemens.internship.dto.ItemCount;
+import com.siemens.internship.dto.ItemPage;
+import com.siemens.internship.dto.ItemSummary;
+import com.siemens.internship.dto.ItemSummaryPage;
+import com.siemens.internship.dto.ProcessingJobStatus;
+import com.siemens.internship.dto.ProcessingSummary;
 import com.siemens.internship.model.Item;
+import com.siemens.internship.service.BulkProcessingException;
+import com.siemens.internship.service.IncrementalProcessingService;
+import com.siemens.internship.service.ItemBatchService;
 import com.siemens.internship.service.ItemService;
+import com.siemens.internship.service.ProcessingJob;
+import com.siemens.internship.service.ProcessingJobService;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.web.PagedModel;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.validation.BindingResult;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalLong;
 import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.mockito.Mockito.*;
 
 class ItemControllerTest {
@@ -22,9 +52,21 @@ class ItemControllerTest {
     @Mock
     private ItemService itemService;
 
+    @Mock
+    private ItemBatchService itemBatchService;
+
+    @Mock
+    private ProcessingJobService processingJobService;
+
+    @Mock
+    private IncrementalProcessingService incrementalProcessingService;
+
     @Mock
     private BindingResult bindingResult;
 
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
     @InjectMocks
     private ItemController itemController;
 
@@ -46,6 +88,136 @@ class ItemControllerTest {
         assertEquals(2, response.getBody().size());
     }
 
+    @Test
+    void testGetItemsPage() {
+        MockitoAnnotations.openMocks(this);
+
+        ItemPage page = new ItemPage(List.of(new Item(3L, "Item3", "Description3", null, "item3@example.com")), 3L);
+        when(itemService.findPage(2L, 1)).thenReturn(page);
+
+        ResponseEntity<ItemPage> response = itemController.getItemsPage(2L, 1);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(page, response.getBody());
+    }
+
+    @Test
+    void testGetItemSummaries() {
+        MockitoAnnotations.openMocks(this);
+
+        ItemSummaryPage page = new ItemSummaryPage(List.of(new ItemSummary(3L, "Item3", null)), 3L);
+        when(itemService.findSummaryPage(2L, 1)).thenReturn(page);
+        when(itemService.findAllSummaries()).thenReturn(page.items());
+
+        assertEquals(page, itemController.getItemSummariesPage(2L, 1).getBody());
+        assertEquals(page.items(), itemController.getAllItemSummaries().getBody());
+        assertEquals(400, itemController.getItemSummariesPage(null, 0).getStatusCodeValue());
+    }
+
+    @Test
+    void testSearchItemSummaries() {
+        MockitoAnnotations.openMocks(this);
+
+        PageRequest pageable = PageRequest.of(0, 20, Sort.by("name"));
+        List<ItemSummary> summaries = List.of(new ItemSummary(1L, "Item1", "PENDING"));
+        when(itemService.searchSummaries("PENDING", null, null, pageable)).thenReturn(new PageImpl<>(summaries, pageable, 1));
+
+        ResponseEntity<PagedModel<ItemSummary>> response = itemController.searchItemSummaries("PENDING", null, null, pageable);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(summaries, response.getBody().getContent());
+    }
+
+    @Test
+    void testGetItemsPageWithInvalidLimit() {
+        MockitoAnnotations.openMocks(this);
+
+        ResponseEntity<ItemPage> response = itemController.getItemsPage(null, ItemController.MAX_PAGE_SIZE + 1);
+
+        assertEquals(400, response.getStatusCodeValue());
+        verify(itemService, never()).findPage(any(), anyInt());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testStreamItemsAsNdjson() throws Exception {
+        MockitoAnnotations.openMocks(this);
+
+        doAnswer(invocation -> {
+            Consumer<Item> consumer = invocation.getArgument(0);
+            consumer.accept(new Item(1L, "Item1", "Description1", null, "item1@example.com"));
+            consumer.accept(new Item(2L, "Item2", "Description2", null, "item2@example.com"));
+            return null;
+        }).when(itemService).streamAll(any(Consumer.class));
+
+        ResponseEntity<StreamingResponseBody> response = itemController.streamItemsAsNdjson();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(2, lines.length);
+        assertEquals(1L, objectMapper.readValue(lines[0], Item.class).getId());
+        assertEquals(2L, objectMapper.readValue(lines[1], Item.class).getId());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testStreamItemsAsJsonArray() throws Exception {
+        MockitoAnnotations.openMocks(this);
+
+        doAnswer(invocation -> {
+            Consumer<Item> consumer = invocation.getArgument(0);
+            consumer.accept(new Item(1L, "Item1", "Description1", null, "item1@example.com"));
+            return null;
+        }).when(itemService).streamAll(any(Consumer.class));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        itemController.streamItems().getBody().writeTo(out);
+
+        Item[] items = objectMapper.readValue(out.toByteArray(), Item[].class);
+        assertEquals(1, items.length);
+        assertEquals("Item1", items[0].getName());
+    }
+
+    @Test
+    void testSearchItems() {
+        MockitoAnnotations.openMocks(this);
+
+        PageRequest pageable = PageRequest.of(0, 20, Sort.by("id"));
+        List<Item> items = List.of(new Item(1L, "Item1", "Description1", "PENDING", "item1@example.com"));
+        when(itemService.search("PENDING", null, "Item", pageable)).thenReturn(new PageImpl<>(items, pageable, 1));
+
+        ResponseEntity<PagedModel<Item>> response = itemController.searchItems("PENDING", null, "Item", pageable);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(items, response.getBody().getContent());
+        assertEquals(1, response.getBody().getMetadata().totalElements());
+    }
+
+    @Test
+    void testSearchItemsWithUnknownSortProperty() {
+        MockitoAnnotations.openMocks(this);
+
+        ResponseEntity<PagedModel<Item>> response = itemController.searchItems(null, null, null,
+                PageRequest.of(0, 20, Sort.by("description")));
+
+        assertEquals(400, response.getStatusCodeValue());
+        verifyNoInteractions(itemService);
+    }
+
+    @Test
+    void testCountItems() {
+        MockitoAnnotations.openMocks(this);
+
+        when(itemService.count("PROCESSED", null, null)).thenReturn(42L);
+
+        ResponseEntity<ItemCount> response = itemController.countItems("PROCESSED", null, null);
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(42L, response.getBody().count());
+    }
+
     @Test
     void testCreateItem() {
         MockitoAnnotations.openMocks(this);
@@ -75,6 +247,81 @@ class ItemControllerTest {
         assertEquals(400, response.getStatusCodeValue()); // Expecting BAD_REQUEST
     }
 
+    @Test
+    void testCreateItemsBatch() {
+        MockitoAnnotations.openMocks(this);
+
+        List<Item> items = List.of(new Item(null, "NewItem", "NewDescription", null, "newitem@example.com"));
+        BatchResult result = BatchResult.of(List.of(BatchItemResult.success(0, 1L, Outcome.CREATED)));
+        when(itemBatchService.createAll(items)).thenReturn(result);
+
+        ResponseEntity<BatchResult> response = itemController.createItems(items);
+
+        assertEquals(201, response.getStatusCodeValue());
+        assertEquals(result, response.getBody());
+    }
+
+    @Test
+    void testCreateItemsBatchWithInvalidItems() {
+        MockitoAnnotations.openMocks(this);
+
+        List<Item> items = List.of(new Item(null, "NewItem", "NewDescription", null, "invalid-email"));
+        BatchResult result = BatchResult.of(List.of(
+                BatchItemResult.failure(0, null, Outcome.INVALID, List.of("Invalid email format"))));
+        when(itemBatchService.createAll(items)).thenReturn(result);
+
+        ResponseEntity<BatchResult> response = itemController.createItems(items);
+
+        assertEquals(207, response.getStatusCodeValue());
+        assertEquals(1, response.getBody().failed());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCreateItemsFromNdjson() throws Exception {
+        MockitoAnnotations.openMocks(this);
+
+        when(itemBatchService.createAll(anyList())).thenAnswer(invocation -> {
+            List<Item> chunk = invocation.getArgument(0);
+            return BatchResult.of(List.of(BatchItemResult.success(0, 1L, Outcome.CREATED),
+                    BatchItemResult.success(1, 2L, Outcome.CREATED)).subList(0, chunk.size()));
+        });
+
+        String body = "{\"name\":\"Item1\",\"email\":\"item1@example.com\"}\n"
+                + "{\"name\":\"Item2\",\"email\":\"item2@example.com\"}\n";
+        ResponseEntity<BatchResult> response = itemController.createItemsFromNdjson(
+                new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(201, response.getStatusCodeValue());
+        assertEquals(2, response.getBody().succeeded());
+        verify(itemBatchService, times(1)).createAll(anyList());
+    }
+
+    @Test
+    void testUpdateItemsBatchTooLarge() {
+        MockitoAnnotations.openMocks(this);
+
+        List<Item> items = Collections.nCopies(ItemController.MAX_BATCH_SIZE + 1, new Item());
+
+        ResponseEntity<BatchResult> response = itemController.updateItems(items);
+
+        assertEquals(400, response.getStatusCodeValue());
+        verifyNoInteractions(itemBatchService);
+    }
+
+    @Test
+    void testDeleteItemsBatch() {
+        MockitoAnnotations.openMocks(this);
+
+        BatchResult result = BatchResult.of(List.of(BatchItemResult.success(0, 1L, Outcome.DELETED)));
+        when(itemBatchService.deleteAll(List.of(1L))).thenReturn(result);
+
+        ResponseEntity<BatchResult> response = itemController.deleteItems(List.of(1L));
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(result, response.getBody());
+    }
+
     @Test
     void testGetItemByIdFound() {
         MockitoAnnotations.openMocks(this);
@@ -82,7 +329,7 @@ class ItemControllerTest {
         Item item = new Item(1L, "Item1", "Description1", "PROCESSED", "item1@example.com");
         when(itemService.findById(1L)).thenReturn(Optional.of(item));
 
-        ResponseEntity<Item> response = itemController.getItemById(1L);
+        ResponseEntity<Item> response = itemController.getItemById(1L, null);
 
         assertEquals(200, response.getStatusCodeValue());
         assertEquals(item, response.getBody());
@@ -94,10 +341,56 @@ class ItemControllerTest {
 
         when(itemService.findById(1L)).thenReturn(Optional.empty());
 
-        ResponseEntity<Item> response = itemController.getItemById(1L);
+        ResponseEntity<Item> response = itemController.getItemById(1L, null);
         assertEquals(404, response.getStatusCodeValue());
     }
 
+    @Test
+    void testGetItemByIdNotModified() {
+        MockitoAnnotations.openMocks(this);
+
+        Item item = new Item(1L, "Item1", "Description1", null, "item1@example.com", 3L);
+        when(itemService.findById(1L)).thenReturn(Optional.of(item));
+
+        ResponseEntity<Item> notModified = itemController.getItemById(1L, "\"3\"");
+        ResponseEntity<Item> changed = itemController.getItemById(1L, "\"2\"");
+
+        assertEquals(304, notModified.getStatusCodeValue());
+        assertNull(notModified.getBody());
+        assertEquals("\"3\"", notModified.getHeaders().getETag());
+        assertEquals(200, changed.getStatusCodeValue());
+        assertEquals("\"3\"", changed.getHeaders().getETag());
+    }
+
+    @Test
+    void testUpdateItemIfMatchMismatch() {
+        MockitoAnnotations.openMocks(this);
+
+        Item item = new Item(null, "UpdatedItem", "UpdatedDescription", null, "updated@example.com");
+        when(itemService.findById(1L)).thenReturn(Optional.of(new Item(1L, "Item1", null, null, "item1@example.com", 4L)));
+        when(bindingResult.hasErrors()).thenReturn(false);
+
+        ResponseEntity<?> response = itemController.updateItem(1L, item, bindingResult, "\"3\"");
+
+        assertEquals(412, response.getStatusCodeValue());
+        verify(itemService, never()).save(any());
+    }
+
+    @Test
+    void testUpdateItemConcurrentModification() {
+        MockitoAnnotations.openMocks(this);
+
+        Item item = new Item(null, "UpdatedItem", "UpdatedDescription", null, "updated@example.com");
+        when(itemService.findById(1L)).thenReturn(Optional.of(new Item(1L, "Item1", null, null, "item1@example.com", 3L)));
+        when(itemService.save(item)).thenThrow(new ObjectOptimisticLockingFailureException(Item.class, 1L));
+        when(bindingResult.hasErrors()).thenReturn(false);
+
+        assertEquals(412, itemController.updateItem(1L, item, bindingResult, "\"3\"").getStatusCodeValue());
+        assertEquals(409, itemController.updateItem(1L, item, bindingResult, null).getStatusCodeValue());
+        // The update is pinned to the version that was read
+        assertEquals(3L, item.getVersion());
+    }
+
     @Test
     void testUpdateItemSuccess() {
         MockitoAnnotations.openMocks(this);
@@ -109,7 +402,7 @@ class ItemControllerTest {
         when(itemService.save(item)).thenReturn(updatedItem);
         when(bindingResult.hasErrors()).thenReturn(false);
 
-        ResponseEntity<?> response = itemController.updateItem(1L, item, bindingResult);
+        ResponseEntity<?> response = itemController.updateItem(1L, item, bindingResult, null);
         assertEquals(200, response.getStatusCodeValue());
         assertEquals(updatedItem, response.getBody());
     }
@@ -122,7 +415,7 @@ class ItemControllerTest {
 
         when(bindingResult.hasErrors()).thenReturn(true);
 
-        ResponseEntity<?> response = itemController.updateItem(1L, item, bindingResult);
+        ResponseEntity<?> response = itemController.updateItem(1L, item, bindingResult, null);
         assertEquals(400, response.getStatusCodeValue());
     }
 
@@ -135,7 +428,7 @@ class ItemControllerTest {
         when(itemService.findById(1L)).thenReturn(Optional.empty());
         when(bindingResult.hasErrors()).thenReturn(false);
 
-        ResponseEntity<?> response = itemController.updateItem(1L, item, bindingResult);
+        ResponseEntity<?> response = itemController.updateItem(1L, item, bindingResult, null);
         assertEquals(404, response.getStatusCodeValue());
     }
 
@@ -145,19 +438,31 @@ class ItemControllerTest {
 
         when(itemService.findById(1L)).thenReturn(Optional.of(new Item()));
 
-        ResponseEntity<Void> response = itemController.deleteItem(1L);
+        ResponseEntity<Void> response = itemController.deleteItem(1L, null);
 
         assertEquals(204, response.getStatusCodeValue());
         verify(itemService, times(1)).deleteById(1L);
     }
 
+    @Test
+    void testDeleteItemIfMatch() {
+        MockitoAnnotations.openMocks(this);
+
+        when(itemService.findById(1L)).thenReturn(Optional.of(new Item(1L, "Item1", null, null, "item1@example.com", 3L)));
+
+        assertEquals(412, itemController.deleteItem(1L, "\"2\"").getStatusCodeValue());
+        assertEquals(204, itemController.deleteItem(1L, "W/\"3\"").getStatusCodeValue());
+        verify(itemService, times(1)).deleteById(1L, 3L);
+        verify(itemService, never()).deleteById(1L);
+    }
+
     @Test
     void testDeleteItemNotFound() {
         MockitoAnnotations.openMocks(this);
 
         when(itemService.findById(1L)).thenReturn(Optional.empty());
 
-        ResponseEntity<Void> response = itemController.deleteItem(1L);
+        ResponseEntity<Void> response = itemController.deleteItem(1L, null);
         assertEquals(404, response.getStatusCodeValue());
     }
 
@@ -187,4 +492,125 @@ class ItemControllerTest {
         ResponseEntity<List<Item>> response = itemController.processItems();
         assertEquals(500, response.getStatusCodeValue());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testProcessItemsSummary() {
+        MockitoAnnotations.openMocks(this);
+
+        ProcessingSummary summary = new ProcessingSummary(2, 1, 0, new long[]{1L, 3L});
+        when(itemService.processItemsSummaryAsync()).thenReturn(CompletableFuture.completedFuture(summary));
+
+        ResponseEntity<ProcessingSummary> response = itemController.processItemsSummary();
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(summary, response.getBody());
+    }
+
+    @Test
+    void testProcessItemsInBulk() {
+        MockitoAnnotations.openMocks(this);
+
+        when(itemService.markAllProcessed()).thenReturn(3L);
+
+        ResponseEntity<BulkProcessingResult> response = itemController.processItemsInBulk();
+
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(3L, response.getBody().processed());
+    }
+
+    @Test
+    void testProcessItemsInBulkWithFailedSlice() {
+        MockitoAnnotations.openMocks(this);
+
+        when(itemService.markAllProcessed()).thenThrow(new BulkProcessingException(2L, new IllegalStateException()));
+
+        ResponseEntity<BulkProcessingResult> response = itemController.processItemsInBulk();
+
+        assertEquals(500, response.getStatusCodeValue());
+        assertEquals(2L, response.getBody().processed());
+    }
+
+    @Test
+    void testProcessChangedItems() {
+        MockitoAnnotations.openMocks(this);
+
+        when(incrementalProcessingService.processChanges()).thenReturn(OptionalLong.of(2), OptionalLong.empty());
+
+        ResponseEntity<BulkProcessingResult> response = itemController.processChangedItems();
+        assertEquals(200, response.getStatusCodeValue());
+        assertEquals(2L, response.getBody().processed());
+        // A run is already going
+        assertEquals(409, itemController.processChangedItems().getStatusCodeValue());
+    }
+
+    @Test
+    void testStartProcessingJob() {
+        MockitoAnnotations.openMocks(this);
+
+        ProcessingJob job = new ProcessingJob("job-1", 1L, Long.MAX_VALUE);
+        when(processingJobService.start(1L, Long.MAX_VALUE)).thenReturn(Optional.of(job));
+
+        ResponseEntity<ProcessingJobStatus> response = itemController.startProcessingJob(1L, null);
+
+        assertEquals(202, response.getStatusCodeValue());
+        assertEquals("job-1", response.getBody().jobId());
+        assertEquals("/api/items/process/job-1", response.getHeaders().getLocation().toString());
+    }
+
+    @Test
+    void testStartProcessingJobOnBusySlice() {
+        MockitoAnnotations.openMocks(this);
+
+        when(processingJobService.start(1L, 100L)).thenReturn(Optional.empty());
+
+        ResponseEntity<ProcessingJobStatus> response = itemController.startProcessingJob(1L, 100L);
+        assertEquals(409, response.getStatusCodeValue());
+    }
+
+    @Test
+    void testStartProcessingJobWithInvalidRange() {
+        MockitoAnnotations.openMocks(this);
+
+        ResponseEntity<ProcessingJobStatus> response = itemController.startProcessingJob(10L, 5L);
+
+        assertEquals(400, response.getStatusCodeValue());
+        verifyNoInteractions(processingJobService);
+    }
+
+    @Test
+    void testGetProcessingJobNotFound() {
+        MockitoAnnotations.openMocks(this);
+
+        when(processingJobService.find("missing")).thenReturn(Optional.empty());
+
+        ResponseEntity<ProcessingJobStatus> response = itemController.getProcessingJob("missing");
+        assertEquals(404, response.getStatusCodeValue());
+    }
+
+    @Test
+    void testCancelProcessingJob() {
+        MockitoAnnotations.openMocks(this);
+
+        ProcessingJob job = new ProcessingJob("job-1", 1L, 100L);
+        when(processingJobService.cancel("job-1")).thenReturn(Optional.of(job));
+
+        ResponseEntity<ProcessingJobStatus> response = itemController.cancelProcessingJob("job-1");
+        assertEquals(202, response.getStatusCodeValue());
+    }
+
+    @Test
+    void testProcessingJobResultsPageBeyondIntOffset() {
+        MockitoAnnotations.openMocks(this);
+
+        int lastPage = Integer.MAX_VALUE / 100;
+        ProcessingJob job = new ProcessingJob("job-1", 1L, 100L);
+        when(processingJobService.find("job-1")).thenReturn(Optional.of(job));
+
+        assertEquals(200, itemController.getProcessingJobResults("job-1", lastPage, 100).getStatusCodeValue());
+        // page * size would overflow
+        assertEquals(400, itemController.getProcessingJobResults("job-1", lastPage + 1, 100).getStatusCodeValue());
+        verify(processingJobService).find("job-1");
+        verify(processingJobService).results(job, lastPage, 100);
+        verifyNoMoreInteractions(processingJobService);
+    }
+}
@@ -0,0 +1,161 @@
+package com.siemens.internship.controller;
+
+import com.siemens.internship.model.Item;
+import com.siemens.internship.service.ReactiveItemService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@WebFluxTest(ReactiveItemController.class)
+@ActiveProfiles("reactive")
+class ReactiveItemControllerTest {
+
+    @MockBean
+    private ReactiveItemService itemService;
+
+    @Autowired
+    private WebTestClient client;
+
+    @Test
+    void testGetAllItems() {
+        when(itemService.findAll()).thenReturn(Flux.just(
+                new Item(1L, "Item1", "Description1", null, "item1@example.com"),
+                new Item(2L, "Item2", "Description2", null, "item2@example.com")));
+
+        client.get().uri("/api/items").exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Item.class).hasSize(2);
+    }
+
+    @Test
+    void testGetAllItemsAsNdjson() {
+        when(itemService.findAll()).thenReturn(Flux.just(
+                new Item(1L, "Item1", "Description1", null, "item1@example.com"),
+                new Item(2L, "Item2", "Description2", null, "item2@example.com")));
+
+        String body = client.get().uri("/api/items").accept(MediaType.APPLICATION_NDJSON).exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class).returnResult().getResponseBody();
+
+        assertThat(body.split("\n")).hasSize(2);
+    }
+
+    @Test
+    void testCreateItem() {
+        Item item = new Item(null, "Item1", "Description1", null, "item1@example.com");
+        when(itemService.create(any(Item.class)))
+                .thenReturn(Mono.just(new Item(1L, "Item1", "Description1", null, "item1@example.com")));
+
+        client.post().uri("/api/items").bodyValue(item).exchange()
+                .expectStatus().isCreated()
+                .expectBody(Item.class).value(created -> assertThat(created.getId()).isEqualTo(1L));
+    }
+
+    @Test
+    void testCreateItemWithValidationErrors() {
+        Item item = new Item(null, "", "Description1", null, "not-an-email");
+
+        client.post().uri("/api/items").bodyValue(item).exchange()
+                .expectStatus().isBadRequest();
+        verify(itemService, never()).create(any());
+    }
+
+    @Test
+    void testGetItemByIdNotFound() {
+        when(itemService.findById(1L)).thenReturn(Mono.empty());
+
+        client.get().uri("/api/items/1").exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void testGetItemByIdWithETag() {
+        when(itemService.findById(1L)).thenReturn(Mono.just(new Item(1L, "Item1", null, null, "item1@example.com", 3L)));
+
+        client.get().uri("/api/items/1").exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"3\"");
+        client.get().uri("/api/items/1").header(HttpHeaders.IF_NONE_MATCH, "\"3\"").exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @Test
+    void testUpdateItemNotFound() {
+        when(itemService.findById(1L)).thenReturn(Mono.empty());
+
+        client.put().uri("/api/items/1").bodyValue(new Item(null, "Item1", null, null, "item1@example.com")).exchange()
+                .expectStatus().isNotFound();
+        verify(itemService, never()).update(any(), any(), anyLong());
+    }
+
+    @Test
+    void testUpdateItemChecksVersion() {
+        Item item = new Item(null, "Item1", null, null, "item1@example.com");
+        when(itemService.findById(1L)).thenReturn(Mono.just(new Item(1L, "Item1", null, null, "item1@example.com", 3L)));
+        when(itemService.update(eq(1L), any(Item.class), eq(3L)))
+                .thenReturn(Mono.just(new Item(1L, "Item1", null, null, "item1@example.com", 4L)));
+
+        client.put().uri("/api/items/1").header(HttpHeaders.IF_MATCH, "\"3\"").bodyValue(item).exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"4\"");
+        client.put().uri("/api/items/1").header(HttpHeaders.IF_MATCH, "\"2\"").bodyValue(item).exchange()
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        verify(itemService, times(1)).update(eq(1L), any(Item.class), eq(3L));
+    }
+
+    @Test
+    void testUpdateItemLosingRace() {
+        Item item = new Item(null, "Item1", null, null, "item1@example.com");
+        when(itemService.findById(1L)).thenReturn(Mono.just(new Item(1L, "Item1", null, null, "item1@example.com", 3L)));
+        when(itemService.update(eq(1L), any(Item.class), eq(3L)))
+                .thenReturn(Mono.error(new OptimisticLockingFailureException("changed")));
+
+        client.put().uri("/api/items/1").bodyValue(item).exchange()
+                .expectStatus().isEqualTo(HttpStatus.CONFLICT);
+        client.put().uri("/api/items/1").header(HttpHeaders.IF_MATCH, "\"3\"").bodyValue(item).exchange()
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @Test
+    void testDeleteItem() {
+        when(itemService.deleteById(1L)).thenReturn(Mono.just(true));
+        when(itemService.deleteById(2L)).thenReturn(Mono.just(false));
+
+        client.delete().uri("/api/items/1").exchange().expectStatus().isNoContent();
+        client.delete().uri("/api/items/2").exchange().expectStatus().isNotFound();
+    }
+
+    @Test
+    void testDeleteItemWithIfMatch() {
+        when(itemService.findById(1L)).thenReturn(Mono.just(new Item(1L, "Item1", null, null, "item1@example.com", 3L)));
+        when(itemService.deleteById(1L, 3L)).thenReturn(Mono.empty());
+
+        client.delete().uri("/api/items/1").header(HttpHeaders.IF_MATCH, "\"2\"").exchange()
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        client.delete().uri("/api/items/1").header(HttpHeaders.IF_MATCH, "\"3\"").exchange()
+                .expectStatus().isNoContent();
+        verify(itemService, times(1)).deleteById(1L, 3L);
+    }
+
+    @Test
+    void testProcessItems() {
+        when(itemService.processItems()).thenReturn(Flux.just(
+                new Item(1L, "Item1", "Description1", "PROCESSED", "item1@example.com")));
+
+        client.get().uri("/api/items/process").exchange()
+                .expectStatus().isOk()
+                .expectBodyList(Item.class).hasSize(1);
+    }
+}
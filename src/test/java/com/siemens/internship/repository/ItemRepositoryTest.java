@@ -0,0 +1,132 @@
+package com.siemens.internship.repository;
+
+import com.siemens.internship.dto.ItemChange;
+import com.siemens.internship.dto.ItemSummary;
+import com.siemens.internship.model.Item;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class ItemRepositoryTest {
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private List<Item> items;
+
+    @BeforeEach
+    void setUp() {
+        items = itemRepository.saveAll(List.of(
+                new Item(null, "Alpha", "Description1", null, "alpha@example.com"),
+                new Item(null, "Alpine", "Description2", "PROCESSED", "alpine@example.com"),
+                new Item(null, "Beta", "Description3", "PENDING", "beta@example.com"),
+                new Item(null, "al_pha", "Description4", "processed", "alpha@example.com")
+        ));
+        itemRepository.flush();
+    }
+
+    @Test
+    void testFindUnprocessedIdsInRange() {
+        List<Long> ids = itemRepository.findUnprocessedIdsInRange(0L, Long.MAX_VALUE, PageRequest.ofSize(10));
+
+        // Status comparison ignores case, like the processing engine does
+        assertEquals(List.of(items.get(0).getId(), items.get(2).getId()), ids);
+        assertEquals(2, itemRepository.countUnprocessedInRange(1L, Long.MAX_VALUE));
+    }
+
+    @Test
+    void testMarkProcessedInRange() {
+        int updated = itemRepository.markProcessedInRange(items.get(0).getId(), items.get(2).getId());
+
+        assertEquals(2, updated);
+        assertEquals(0, itemRepository.countUnprocessedInRange(1L, Long.MAX_VALUE));
+    }
+
+    @Test
+    void testFindUnprocessedChangesAfter() {
+        List<ItemChange> changes = itemRepository.findUnprocessedChangesAfter(Instant.EPOCH, 0L, PageRequest.ofSize(10));
+
+        assertEquals(List.of(items.get(0).getId(), items.get(2).getId()), changes.stream().map(ItemChange::id).toList());
+        assertNotNull(changes.get(0).updatedAt());
+
+        // Nothing after the last change that was read
+        ItemChange last = changes.get(changes.size() - 1);
+        ItemChange latest = changes.stream().max(Comparator.comparing(ItemChange::updatedAt).thenComparing(ItemChange::id)).orElseThrow();
+        assertTrue(itemRepository.findUnprocessedChangesAfter(latest.updatedAt(), latest.id(), PageRequest.ofSize(10)).isEmpty());
+        assertEquals(latest, last);
+    }
+
+    @Test
+    void testMarkProcessedInRangeBumpsVersionAndUpdatedAt() {
+        Item item = items.get(0);
+        long version = item.getVersion();
+        Instant updatedAt = item.getUpdatedAt();
+        itemRepository.markProcessedInRange(item.getId(), item.getId());
+        // The bulk update bypasses the persistence context
+        entityManager.clear();
+
+        Item updated = itemRepository.findById(item.getId()).orElseThrow();
+        assertEquals(version + 1, updated.getVersion());
+        assertFalse(updated.getUpdatedAt().isBefore(updatedAt));
+    }
+
+    @Test
+    void testSearchByNamePrefix() {
+        Page<Item> page = itemRepository.findAll(ItemSpecifications.matching(null, null, "Alp"),
+                PageRequest.of(0, 10, Sort.by("name")));
+
+        assertEquals(List.of("Alpha", "Alpine"), page.map(Item::getName).getContent());
+    }
+
+    @Test
+    void testNamePrefixEscapesWildcards() {
+        assertEquals(1, itemRepository.count(ItemSpecifications.matching(null, null, "al_")));
+        assertEquals(0, itemRepository.count(ItemSpecifications.matching(null, null, "%")));
+    }
+
+    @Test
+    void testSearchByStatusAndEmail() {
+        assertEquals(1, itemRepository.count(ItemSpecifications.matching("PENDING", null, null)));
+        assertEquals(2, itemRepository.count(ItemSpecifications.matching(null, "alpha@example.com", null)));
+        assertEquals(1, itemRepository.count(ItemSpecifications.matching(null, "alpha@example.com", "Al")));
+        assertEquals(4, itemRepository.count(ItemSpecifications.matching(null, null, " ")));
+    }
+
+    @Test
+    void testSummariesAreReadWithoutEntities() {
+        entityManager.clear();
+
+        List<ItemSummary> summaries = itemRepository.findAllSummaries();
+        List<ItemSummary> page = itemRepository.findSummariesAfter(items.get(0).getId(), Limit.of(2));
+
+        assertEquals(new ItemSummary(items.get(1).getId(), "Alpine", "PROCESSED"), summaries.get(1));
+        assertEquals(summaries.subList(1, 3), page);
+        assertEquals(0, entityManager.getEntityManager().unwrap(Session.class).getStatistics().getEntityCount());
+    }
+
+    @Test
+    void testSearchSummaries() {
+        Page<ItemSummary> page = itemRepository.findSummaries(ItemSpecifications.matching(null, null, "Alp"),
+                PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "name")));
+
+        assertEquals(List.of(new ItemSummary(items.get(1).getId(), "Alpine", "PROCESSED")), page.getContent());
+        assertEquals(2, page.getTotalElements());
+    }
+}
@@ -0,0 +1,97 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.config.ItemProcessingProperties;
+import com.siemens.internship.dto.ItemChange;
+import com.siemens.internship.dto.ProcessingSummary;
+import com.siemens.internship.model.ProcessingWatermark;
+import com.siemens.internship.repository.ItemRepository;
+import com.siemens.internship.repository.ProcessingWatermarkRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.domain.Pageable;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class IncrementalProcessingServiceTest {
+    private static final Instant WATERMARK_TIME = Instant.parse("2024-01-01T10:00:00Z");
+
+    @Mock
+    private ItemService itemService;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private ProcessingWatermarkRepository watermarkRepository;
+
+    @InjectMocks
+    private IncrementalProcessingService incrementalProcessingService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        incrementalProcessingService.processingProperties = new ItemProcessingProperties();
+
+        // Reads the first page like ItemService does and "processes" every id in it
+        when(itemService.processPagesSummary(any(Function.class), any(Function.class), any(ProcessingListener.class))).thenAnswer(invocation -> {
+            Function<ItemChange, List<ItemChange>> nextPage = invocation.getArgument(0);
+            long[] ids = nextPage.apply(null).stream().mapToLong(ItemChange::id).toArray();
+            return CompletableFuture.completedFuture(new ProcessingSummary(ids.length, 0, 0, ids));
+        });
+    }
+
+    @Test
+    void testFirstRunStartsAtTheBeginningAndStoresWatermark() {
+        when(watermarkRepository.findById(IncrementalProcessingService.WATERMARK)).thenReturn(Optional.empty());
+        when(itemRepository.findUnprocessedChangesAfter(eq(Instant.EPOCH.minusSeconds(5)), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(new ItemChange(3L, WATERMARK_TIME), new ItemChange(1L, WATERMARK_TIME.plusSeconds(1))));
+
+        assertEquals(OptionalLong.of(2), incrementalProcessingService.processChanges());
+
+        ArgumentCaptor<ProcessingWatermark> saved = ArgumentCaptor.forClass(ProcessingWatermark.class);
+        verify(watermarkRepository).save(saved.capture());
+        assertEquals(WATERMARK_TIME.plusSeconds(1), saved.getValue().getUpdatedAt());
+        assertEquals(1L, saved.getValue().getLastId());
+    }
+
+    @Test
+    void testRunStartsAnOverlapBeforeTheWatermark() {
+        when(watermarkRepository.findById(IncrementalProcessingService.WATERMARK))
+                .thenReturn(Optional.of(new ProcessingWatermark(IncrementalProcessingService.WATERMARK, WATERMARK_TIME, 7L)));
+        // Only a late change older than the watermark is found: the watermark must not move back
+        when(itemRepository.findUnprocessedChangesAfter(eq(WATERMARK_TIME.minusSeconds(5)), eq(0L), any(Pageable.class)))
+                .thenReturn(List.of(new ItemChange(2L, WATERMARK_TIME.minusSeconds(1))));
+
+        assertEquals(OptionalLong.of(1), incrementalProcessingService.processChanges());
+        verify(watermarkRepository, never()).save(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFailedChunkKeepsWatermark() {
+        when(watermarkRepository.findById(IncrementalProcessingService.WATERMARK)).thenReturn(Optional.empty());
+        when(itemRepository.findUnprocessedChangesAfter(any(Instant.class), anyLong(), any(Pageable.class)))
+                .thenReturn(List.of(new ItemChange(1L, WATERMARK_TIME)));
+        when(itemService.processPagesSummary(any(Function.class), any(Function.class), any(ProcessingListener.class))).thenAnswer(invocation -> {
+            Function<ItemChange, List<ItemChange>> nextPage = invocation.getArgument(0);
+            return CompletableFuture.completedFuture(new ProcessingSummary(0, 0, nextPage.apply(null).size(), new long[0]));
+        });
+
+        assertEquals(OptionalLong.of(0), incrementalProcessingService.processChanges());
+        verify(watermarkRepository, never()).save(any());
+    }
+}
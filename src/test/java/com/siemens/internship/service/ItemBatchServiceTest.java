@@ -0,0 +1,142 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.dto.BatchItemResult.Outcome;
+import com.siemens.internship.dto.BatchResult;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.repository.ItemRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class ItemBatchServiceTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ItemCache itemCache;
+
+    @Mock
+    private WriteBehindBuffer writeBehindBuffer;
+
+    @Spy
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @InjectMocks
+    private ItemBatchService itemBatchService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        itemBatchService.batchSize = 2;
+    }
+
+    @Test
+    void testCreateAll() {
+        long[] nextId = {1};
+        doAnswer(invocation -> {
+            invocation.<Item>getArgument(0).setId(nextId[0]++);
+            return null;
+        }).when(entityManager).persist(any(Item.class));
+
+        List<Item> items = Arrays.asList(
+                new Item(null, "Item1", "Description1", null, "item1@example.com"),
+                new Item(null, "Item2", "Description2", null, "invalid-email"),
+                new Item(null, "Item3", "Description3", null, "item3@example.com"),
+                new Item(null, "Item4", "Description4", null, "item4@example.com")
+        );
+
+        BatchResult result = itemBatchService.createAll(items);
+
+        assertEquals(3, result.succeeded());
+        assertEquals(1, result.failed());
+        assertEquals(Outcome.CREATED, result.results().get(0).outcome());
+        assertEquals(1L, result.results().get(0).id());
+        assertEquals(Outcome.INVALID, result.results().get(1).outcome());
+        assertEquals(List.of("Invalid email format"), result.results().get(1).errors());
+        assertEquals(3L, result.results().get(3).id());
+
+        verify(entityManager, times(3)).persist(any(Item.class));
+        // Flushed once per full batch of batchSize items
+        verify(entityManager, times(1)).flush();
+    }
+
+    @Test
+    void testCreateAllIgnoresClientIds() {
+        Item item = new Item(42L, "Item1", "Description1", null, "item1@example.com");
+
+        itemBatchService.createAll(List.of(item));
+
+        verify(entityManager).persist(item);
+        assertNull(item.getId());
+    }
+
+    @Test
+    void testUpdateAll() {
+        Item existing = new Item(1L, "Item1", "Description1", null, "item1@example.com");
+        when(itemRepository.findAllById(Set.of(1L, 2L))).thenReturn(List.of(existing));
+
+        List<Item> items = Arrays.asList(
+                new Item(1L, "Updated", "UpdatedDescription", "PENDING", "updated@example.com"),
+                new Item(2L, "Missing", "Description2", null, "item2@example.com"),
+                new Item(null, "NoId", "Description3", null, "item3@example.com")
+        );
+
+        BatchResult result = itemBatchService.updateAll(items);
+
+        assertEquals(1, result.succeeded());
+        assertEquals(Outcome.UPDATED, result.results().get(0).outcome());
+        assertEquals(Outcome.NOT_FOUND, result.results().get(1).outcome());
+        assertEquals(Outcome.INVALID, result.results().get(2).outcome());
+        assertEquals("Updated", existing.getName());
+        assertEquals("PENDING", existing.getStatus());
+        assertEquals("updated@example.com", existing.getEmail());
+        verify(itemCache).evict(Set.of(1L));
+    }
+
+    @Test
+    void testUpdateAllWithStaleVersion() {
+        Item existing = new Item(1L, "Item1", "Description1", null, "item1@example.com", 5L);
+        when(itemRepository.findAllById(Set.of(1L))).thenReturn(List.of(existing));
+
+        BatchResult result = itemBatchService.updateAll(List.of(
+                new Item(1L, "Updated", "UpdatedDescription", null, "updated@example.com", 4L)));
+
+        assertEquals(0, result.succeeded());
+        assertEquals(Outcome.CONFLICT, result.results().get(0).outcome());
+        assertEquals("Item1", existing.getName());
+    }
+
+    @Test
+    void testDeleteAll() {
+        when(itemRepository.findExistingIds(List.of(1L, 2L))).thenReturn(List.of(1L));
+        when(itemRepository.findExistingIds(List.of(3L))).thenReturn(List.of(3L));
+
+        BatchResult result = itemBatchService.deleteAll(List.of(1L, 2L, 3L));
+
+        assertEquals(2, result.succeeded());
+        assertEquals(Outcome.DELETED, result.results().get(0).outcome());
+        assertEquals(Outcome.NOT_FOUND, result.results().get(1).outcome());
+        assertEquals(2, result.results().get(2).index());
+        verify(itemRepository).deleteAllByIdInBatch(Set.of(1L));
+        verify(itemRepository).deleteAllByIdInBatch(Set.of(3L));
+        verify(itemCache).evict(Set.of(1L));
+    }
+}
@@ -0,0 +1,229 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.dto.ProcessingSummary;
+import com.siemens.internship.model.Item;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:pipeline",
+        "items.processing.pipeline.enabled=true",
+        "items.processing.chunk-size=50",
+        "items.processing.pipeline.stages.persist.batch-size=30",
+        "items.processing.pipeline.stages.enrich.concurrency=3",
+        "items.processing.pipeline.stages.interfere.queue-capacity=40"
+})
+class ItemPipelineTest {
+    private static final int ITEMS = 1000;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemPipeline itemPipeline;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Threads the enrich stage ran on
+    private static final Set<String> enrichThreads = ConcurrentHashMap.newKeySet();
+    // Items whose rows the interfering stage changes: once, or on every pass
+    private static final Set<Long> changedOnce = ConcurrentHashMap.newKeySet();
+    private static final Set<Long> changedAlways = ConcurrentHashMap.newKeySet();
+    // Longest queue seen in front of the interfering stage
+    private static final AtomicInteger interfereQueue = new AtomicInteger();
+
+    // A custom stage plugged in between validation and the status change, and a slow one with a small queue
+    // that updates rows behind the pipeline's back before they are persisted
+    @TestConfiguration
+    static class EnrichmentConfig {
+        @Bean
+        @Order(200)
+        ItemStage enrichStage(MeterRegistry meterRegistry) {
+            return new ItemStage() {
+                @Override
+                public String name() {
+                    return "enrich";
+                }
+
+                @Override
+                public List<Item> process(List<Item> batch) {
+                    enrichThreads.add(Thread.currentThread().getName());
+                    sampleInterfereQueue(meterRegistry);
+                    batch.forEach(item -> item.setDescription("Enriched " + item.getStatus()));
+                    return batch;
+                }
+            };
+        }
+
+        @Bean
+        @Order(400)
+        ItemStage interfereStage(JdbcTemplate jdbcTemplate, MeterRegistry meterRegistry) {
+            return new ItemStage() {
+                @Override
+                public String name() {
+                    return "interfere";
+                }
+
+                @Override
+                public List<Item> process(List<Item> batch) {
+                    sampleInterfereQueue(meterRegistry);
+                    try {
+                        Thread.sleep(5);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    for (Item item : batch) {
+                        if (changedOnce.remove(item.getId()) || changedAlways.contains(item.getId())) {
+                            jdbcTemplate.update("update item set name = 'Changed', version = version + 1 where id = ?",
+                                    item.getId());
+                        }
+                    }
+                    return batch;
+                }
+            };
+        }
+
+        private static void sampleInterfereQueue(MeterRegistry meterRegistry) {
+            int length = (int) meterRegistry.get(ItemPipeline.QUEUE_METRIC).tag("stage", "interfere").gauge().value();
+            interfereQueue.accumulateAndGet(length, Math::max);
+        }
+    }
+
+    @BeforeEach
+    void seed() {
+        enrichThreads.clear();
+        changedOnce.clear();
+        changedAlways.clear();
+        interfereQueue.set(0);
+        jdbcTemplate.update("delete from item");
+        // Every tenth item has an invalid email
+        jdbcTemplate.update("insert into item (id, name, description, status, email, version, created_at, updated_at) " +
+                "select x, 'Item' || x, 'Description' || x, null, " +
+                "case when mod(x, 10) = 0 then 'invalid' else 'item' || x || '@example.com' end, 0, " +
+                "current_timestamp, current_timestamp from system_range(1, ?)", ITEMS);
+    }
+
+    @Test
+    void testItemsGoThroughEveryStage() {
+        ProcessingSummary summary = itemService.processRangeSummary(0L, Long.MAX_VALUE, ProcessingListener.NONE).join();
+
+        assertEquals(900, summary.processed());
+        assertEquals(100, summary.skipped());
+        assertEquals(0, summary.failed());
+        // Enriched before the status change, written by the persist stage
+        assertEquals(900, jdbcTemplate.queryForObject(
+                "select count(*) from item where status = 'PROCESSED' and description = 'Enriched null' and version = 1",
+                Integer.class));
+        assertEquals(100, jdbcTemplate.queryForObject("select count(*) from item where status is null", Integer.class));
+    }
+
+    @Test
+    void testEveryStageReportsMetrics() {
+        itemService.processRangeSummary(0L, Long.MAX_VALUE, ProcessingListener.NONE).join();
+
+        for (String stage : List.of("validate-email", "enrich", "mark-processed", "persist")) {
+            assertTrue(meterRegistry.get(ItemPipeline.STAGE_METRIC).tag("stage", stage).timer().count() > 0, stage);
+            assertEquals(0, meterRegistry.get(ItemPipeline.QUEUE_METRIC).tag("stage", stage).gauge().value(), stage);
+        }
+        assertTrue(meterRegistry.get(ItemPipeline.STAGE_ITEMS_METRIC).tags("stage", "validate-email", "outcome", "skipped")
+                .counter().count() >= 100);
+    }
+
+    @Test
+    void testStagesRunOnTheProcessingExecutor() {
+        itemService.processRangeSummary(0L, Long.MAX_VALUE, ProcessingListener.NONE).join();
+
+        assertFalse(enrichThreads.isEmpty());
+        assertTrue(enrichThreads.stream().allMatch(name -> name.startsWith("AsyncExecutor-")), enrichThreads::toString);
+    }
+
+    @Test
+    void testItemChangedBeforePersistIsProcessedAgain() {
+        double conflicts = meterRegistry.counter(ItemService.CONFLICT_METRIC).count();
+        changedOnce.add(5L);
+
+        ProcessingSummary summary = itemService.processRangeSummary(0L, Long.MAX_VALUE, ProcessingListener.NONE).join();
+
+        assertEquals(900, summary.processed());
+        assertEquals(0, summary.failed());
+        // The concurrent change is kept and the item processed on top of it
+        assertEquals(Map.of("NAME", "Changed", "STATUS", "PROCESSED", "VERSION", 2L),
+                jdbcTemplate.queryForMap("select name, status, version from item where id = 5"));
+        assertTrue(meterRegistry.counter(ItemService.CONFLICT_METRIC).count() > conflicts);
+    }
+
+    @Test
+    void testItemThatKeepsChangingFails() {
+        changedAlways.add(5L);
+
+        ProcessingSummary summary = itemService.processRangeSummary(0L, Long.MAX_VALUE, ProcessingListener.NONE).join();
+
+        assertEquals(899, summary.processed());
+        assertEquals(1, summary.failed());
+        // Changed on each of the three attempts and never processed
+        assertEquals(3L, jdbcTemplate.queryForObject("select version from item where id = 5", Long.class));
+        assertNull(jdbcTemplate.queryForObject("select status from item where id = 5", String.class));
+    }
+
+    @Test
+    void testProcessedItemsAreReturned() {
+        List<Item> processed = itemService.processRange(0L, 200L, ProcessingListener.NONE).join();
+
+        assertEquals(180, processed.size());
+        assertTrue(processed.stream().allMatch(item -> ItemService.PROCESSED.equals(item.getStatus())));
+    }
+
+    @Test
+    void testItemProcessedAfterItsPageWasReadIsSkipped() {
+        AtomicInteger processed = new AtomicInteger();
+        AtomicInteger skipped = new AtomicInteger();
+        ProcessingListener listener = new ProcessingListener() {
+            @Override
+            public void chunkProcessed(List<Item> items, int skippedItems) {
+                processed.addAndGet(items.size());
+                skipped.addAndGet(skippedItems);
+            }
+        };
+        // Another run processes item 3 between the page query and the load
+        List<Long> page = LongStream.rangeClosed(1, 20).boxed().toList();
+        itemPipeline.<Long>run(last -> {
+            jdbcTemplate.update("update item set status = 'PROCESSED', version = version + 1 where id = 3");
+            return page;
+        }, id -> id, listener, false).join();
+
+        assertEquals(17, processed.get());
+        // Item 3 and the two invalid emails
+        assertEquals(3, skipped.get());
+        assertEquals(1L, jdbcTemplate.queryForObject("select version from item where id = 3", Long.class));
+    }
+
+    @Test
+    void testSlowStageHoldsBackTheStagesBeforeIt() {
+        ProcessingSummary summary = itemService.processRangeSummary(0L, Long.MAX_VALUE, ProcessingListener.NONE).join();
+
+        assertEquals(900, summary.processed());
+        // The faster stages before it filled its queue, but never beyond its capacity
+        assertTrue(interfereQueue.get() > 0);
+        assertTrue(interfereQueue.get() <= 40, () -> "Queue of " + interfereQueue.get());
+    }
+}
@@ -0,0 +1,87 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.config.CacheConfig;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.repository.ItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.cache.CacheManager;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+class ItemServiceCachingTest {
+
+    @MockBean
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemCache itemCache;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.ITEMS_CACHE).clear();
+    }
+
+    @Test
+    void testFindByIdIsServedFromCache() {
+        Item item = new Item(1L, "Item1", "Description1", null, "item1@example.com");
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+
+        assertEquals(Optional.of(item), itemService.findById(1L));
+        assertEquals(Optional.of(item), itemService.findById(1L));
+
+        verify(itemRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void testMissingItemIsNotCached() {
+        when(itemRepository.findById(1L)).thenReturn(Optional.empty());
+
+        assertTrue(itemService.findById(1L).isEmpty());
+        assertTrue(itemService.findById(1L).isEmpty());
+
+        verify(itemRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void testSaveReplacesCachedItem() {
+        Item item = new Item(1L, "Item1", "Description1", null, "item1@example.com");
+        Item updated = new Item(1L, "Updated", "Description1", null, "item1@example.com");
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        when(itemRepository.save(updated)).thenReturn(updated);
+
+        itemService.findById(1L);
+        itemService.save(updated);
+
+        assertEquals("Updated", itemService.findById(1L).orElseThrow().getName());
+        verify(itemRepository, times(1)).findById(1L);
+    }
+
+    @Test
+    void testDeleteAndProcessingEvictCachedItem() {
+        Item item = new Item(1L, "Item1", "Description1", null, "item1@example.com");
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+
+        itemService.findById(1L);
+        itemService.deleteById(1L);
+        itemService.findById(1L);
+        itemCache.evict(List.of(1L));
+        itemService.findById(1L);
+
+        verify(itemRepository, times(3)).findById(1L);
+    }
+}
@@ -1,18 +1,37 @@
 package com.siemens.internship.service;
 
+import com.siemens.internship.config.ItemProcessingProperties;
+import com.siemens.internship.dto.ItemPage;
+import com.siemens.internship.dto.ProcessingJobStatus;
+import com.siemens.internship.dto.ProcessingSummary;
 import com.siemens.internship.model.Item;
 import com.siemens.internship.repository.ItemRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -22,6 +41,15 @@ class ItemServiceTest {
     @Mock
     private ItemRepository itemRepository;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private ItemCache itemCache;
+
+    @Mock
+    private WriteBehindBuffer writeBehindBuffer;
+
     @InjectMocks
     private ItemService itemService;
 
@@ -37,6 +65,9 @@ class ItemServiceTest {
 
         // Inject the custom executor into the already initialized itemService
         itemService.executor = executor;
+        itemService.transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        itemService.processingProperties = new ItemProcessingProperties();
+        itemService.meterRegistry = new SimpleMeterRegistry();
     }
 
     @Test
@@ -55,6 +86,48 @@ class ItemServiceTest {
         verify(itemRepository, times(1)).findAll();
     }
 
+    @Test
+    void testFindPage() {
+        List<Item> items = Arrays.asList(
+                new Item(3L, "Item3", "Description3", null, "item3@example.com"),
+                new Item(4L, "Item4", "Description4", null, "item4@example.com")
+        );
+
+        when(itemRepository.findByIdGreaterThanOrderByIdAsc(2L, Limit.of(2))).thenReturn(items);
+
+        ItemPage page = itemService.findPage(2L, 2);
+
+        assertEquals(items, page.items());
+        assertEquals(4L, page.nextCursor());
+    }
+
+    @Test
+    void testFindLastPage() {
+        List<Item> items = List.of(new Item(3L, "Item3", "Description3", null, "item3@example.com"));
+
+        when(itemRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2))).thenReturn(items);
+
+        ItemPage page = itemService.findPage(null, 2);
+
+        assertEquals(1, page.items().size());
+        assertNull(page.nextCursor());
+    }
+
+    @Test
+    void testStreamAll() {
+        Item item1 = new Item(1L, "Item1", "Description1", null, "item1@example.com");
+        Item item2 = new Item(2L, "Item2", "Description2", null, "item2@example.com");
+
+        when(itemRepository.streamAll()).thenReturn(Stream.of(item1, item2));
+
+        List<Item> consumed = new ArrayList<>();
+        itemService.streamAll(consumed::add);
+
+        assertEquals(List.of(item1, item2), consumed);
+        verify(entityManager).detach(item1);
+        verify(entityManager).detach(item2);
+    }
+
     @Test
     void testSave() {
         Item item = new Item(null, "NewItem", "NewDescription", null, "newitem@example.com");
@@ -103,8 +176,8 @@ class ItemServiceTest {
         Item item2 = new Item(2L, "Item2", "Description2", null, "item2@example.com");
         List<Item> items = Arrays.asList(item1, item2);
 
-        when(itemRepository.findAll()).thenReturn(items);
-        when(itemRepository.save(any(Item.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(itemRepository.findUnprocessedIdsInRange(eq(0L), eq(Long.MAX_VALUE), any(Pageable.class))).thenReturn(List.of(1L, 2L));
+        when(itemRepository.findAllById(List.of(1L, 2L))).thenReturn(items);
 
         CompletableFuture<List<Item>> future = itemService.processItemsAsync();
         List<Item> processedItems = future.get();
@@ -113,7 +186,37 @@ class ItemServiceTest {
         assertEquals("PROCESSED", processedItems.get(0).getStatus());
         assertEquals("PROCESSED", processedItems.get(1).getStatus());
 
-        verify(itemRepository, times(2)).save(any(Item.class));
+        // Changes are flushed by the chunk transaction, not by row-by-row saves
+        verify(itemRepository, never()).save(any(Item.class));
+        verify(itemCache).evict(List.of(1L, 2L));
+    }
+
+    @Test
+    void testRejectedChunkFailsRunAfterSubmittedChunks() throws Exception {
+        CountDownLatch firstChunk = new CountDownLatch(1);
+        AtomicInteger submitted = new AtomicInteger();
+        // Runs the first chunk, then rejects like a full executor with the abort policy
+        itemService.executor = task -> {
+            if (submitted.getAndIncrement() > 0) {
+                throw new TaskRejectedException("Executor is full");
+            }
+            new Thread(task).start();
+        };
+        itemService.processingProperties.setChunkSize(2);
+        when(itemRepository.findUnprocessedIdsInRange(eq(0L), eq(Long.MAX_VALUE), any(Pageable.class))).thenReturn(List.of(1L, 2L));
+        when(itemRepository.findUnprocessedIdsInRange(eq(2L), eq(Long.MAX_VALUE), any(Pageable.class))).thenReturn(List.of(3L));
+        when(itemRepository.findAllById(List.of(1L, 2L))).thenAnswer(invocation -> {
+            firstChunk.await();
+            return List.of(new Item(1L, "Item1", "Description1", null, "item1@example.com"));
+        });
+
+        CompletableFuture<List<Item>> future = itemService.processItemsAsync();
+
+        assertFalse(future.isDone());
+        firstChunk.countDown();
+        ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(TaskRejectedException.class, e.getCause());
+        verify(itemCache).evict(List.of(1L, 2L));
     }
 
     @Test
@@ -122,8 +225,8 @@ class ItemServiceTest {
         Item item2 = new Item(2L, "Item2", "Description2", null, "item2@example.com");
         List<Item> items = Arrays.asList(item1, item2);
 
-        when(itemRepository.findAll()).thenReturn(items);
-        when(itemRepository.save(any(Item.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(itemRepository.findUnprocessedIdsInRange(eq(0L), eq(Long.MAX_VALUE), any(Pageable.class))).thenReturn(List.of(1L, 2L));
+        when(itemRepository.findAllById(List.of(1L, 2L))).thenReturn(items);
 
         CompletableFuture<List<Item>> future = itemService.processItemsAsync();
         List<Item> processedItems = future.get();
@@ -132,15 +235,186 @@ class ItemServiceTest {
         assertEquals("PROCESSED", processedItems.get(0).getStatus());
         assertEquals(item2.getId(), processedItems.get(0).getId());
 
-        verify(itemRepository, times(1)).save(any(Item.class));
+        assertEquals(1, itemService.meterRegistry.counter(ItemService.ITEMS_METRIC, "outcome", "processed").count());
+        assertEquals(1, itemService.meterRegistry.counter(ItemService.ITEMS_METRIC, "outcome", "skipped").count());
+    }
+
+    @Test
+    void testProcessItemsAsyncReadsInChunks() throws Exception {
+        itemService.processingProperties.setChunkSize(2);
+
+        when(itemRepository.findUnprocessedIdsInRange(eq(0L), eq(Long.MAX_VALUE), any(Pageable.class))).thenReturn(List.of(1L, 2L));
+        when(itemRepository.findUnprocessedIdsInRange(eq(2L), eq(Long.MAX_VALUE), any(Pageable.class))).thenReturn(List.of(3L));
+        when(itemRepository.findAllById(List.of(1L, 2L))).thenReturn(Arrays.asList(
+                new Item(1L, "Item1", "Description1", null, "item1@example.com"),
+                new Item(2L, "Item2", "Description2", null, "item2@example.com")));
+        when(itemRepository.findAllById(List.of(3L))).thenReturn(List.of(
+                new Item(3L, "Item3", "Description3", null, "item3@example.com")));
+
+        List<Item> processedItems = itemService.processItemsAsync().get();
+
+        assertEquals(3, processedItems.size());
+        assertEquals(3L, processedItems.get(2).getId());
+        verify(itemRepository, times(2)).findUnprocessedIdsInRange(anyLong(), anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    void testProcessRangeReportsProgress() throws Exception {
+        Item item1 = new Item(5L, "Item5", "Description5", "PROCESSED", "item5@example.com");
+        Item item2 = new Item(6L, "Item6", "Description6", null, "item6@example.com");
+
+        when(itemRepository.findUnprocessedIdsInRange(eq(4L), eq(10L), any(Pageable.class))).thenReturn(List.of(5L, 6L));
+        when(itemRepository.findAllById(List.of(5L, 6L))).thenReturn(Arrays.asList(item1, item2));
+
+        ProcessingJob job = new ProcessingJob("job", 5L, 10L);
+        itemService.processRange(4L, 10L, job).get();
+
+        ProcessingJobStatus status = job.toStatus();
+        assertEquals(1, status.processed());
+        assertEquals(1, status.skipped());
+        assertEquals(List.of(6L), job.getProcessedIds(0, 10));
+    }
+
+    @Test
+    void testFailedChunkIsCounted() throws Exception {
+        when(itemRepository.findUnprocessedIdsInRange(eq(0L), eq(Long.MAX_VALUE), any(Pageable.class))).thenReturn(List.of(1L, 2L));
+        when(itemRepository.findAllById(List.of(1L, 2L))).thenThrow(new RuntimeException("Database error"));
+
+        List<Item> processedItems = itemService.processItemsAsync().get();
+
+        assertTrue(processedItems.isEmpty());
+        assertEquals(2, itemService.meterRegistry.counter(ItemService.ITEMS_METRIC, "outcome", "failed").count());
+        assertEquals(1, itemService.meterRegistry.timer(ItemService.CHUNK_METRIC, "outcome", "failure").count());
+    }
+
+    @Test
+    void testChunkIsRetriedOnVersionConflict() throws Exception {
+        Item item = new Item(1L, "Item1", "Description1", null, "item1@example.com");
+        when(itemRepository.findUnprocessedIdsInRange(eq(0L), eq(Long.MAX_VALUE), any(Pageable.class))).thenReturn(List.of(1L));
+        when(itemRepository.findAllById(List.of(1L)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Item.class, 1L))
+                .thenReturn(List.of(item));
+
+        List<Item> processedItems = itemService.processItemsAsync().get();
+
+        assertEquals(List.of(item), processedItems);
+        verify(itemRepository, times(2)).findAllById(List.of(1L));
+        assertEquals(1, itemService.meterRegistry.counter(ItemService.CONFLICT_METRIC).count());
+    }
+
+    @Test
+    void testChunkFailsAfterRepeatedVersionConflicts() throws Exception {
+        when(itemRepository.findUnprocessedIdsInRange(eq(0L), eq(Long.MAX_VALUE), any(Pageable.class))).thenReturn(List.of(1L));
+        when(itemRepository.findAllById(List.of(1L))).thenThrow(new ObjectOptimisticLockingFailureException(Item.class, 1L));
+
+        List<Item> processedItems = itemService.processItemsAsync().get();
+
+        assertTrue(processedItems.isEmpty());
+        verify(itemRepository, times(ItemService.MAX_CONFLICT_ATTEMPTS)).findAllById(List.of(1L));
+        assertEquals(1, itemService.meterRegistry.counter(ItemService.ITEMS_METRIC, "outcome", "failed").count());
+    }
+
+    @Test
+    void testDeleteByIdWithExpectedVersion() {
+        Item item = new Item(1L, "Item1", "Description1", null, "item1@example.com", 2L);
+        when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> itemService.deleteById(1L, 1L));
+        verify(itemRepository, never()).delete(any(Item.class));
+
+        itemService.deleteById(1L, 2L);
+        verify(itemRepository, times(1)).delete(item);
+    }
+
+    @Test
+    void testProcessRangeSummaryKeepsOnlyCountsAndIds() throws Exception {
+        itemService.processingProperties.setChunkSize(2);
+        Item item1 = new Item(1L, "Item1", "Description1", null, "item1@example.com");
+        Item item2 = new Item(2L, "Item2", "Description2", "PROCESSED", "item2@example.com");
+        Item item3 = new Item(3L, "Item3", "Description3", null, "item3@example.com");
+        when(itemRepository.findUnprocessedIdsInRange(eq(0L), eq(10L), any(Pageable.class))).thenReturn(List.of(1L, 2L));
+        when(itemRepository.findUnprocessedIdsInRange(eq(2L), eq(10L), any(Pageable.class))).thenReturn(List.of(3L));
+        when(itemRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(item1, item2));
+        when(itemRepository.findAllById(List.of(3L))).thenReturn(List.of(item3));
+
+        ProcessingSummary summary = itemService.processRangeSummary(0L, 10L, ProcessingListener.NONE).get();
+
+        assertEquals(2, summary.processed());
+        assertEquals(1, summary.skipped());
+        assertEquals(0, summary.failed());
+        assertArrayEquals(new long[]{1L, 3L}, summary.processedIds());
+    }
+
+    @Test
+    void testProcessRangeStopsWhenCancelled() throws Exception {
+        ProcessingJob job = new ProcessingJob("job", 1L, 10L);
+        job.cancel();
+
+        List<Item> processedItems = itemService.processRange(0L, 10L, job).get();
+
+        assertTrue(processedItems.isEmpty());
+        verify(itemRepository, never()).findUnprocessedIdsInRange(anyLong(), anyLong(), any(Pageable.class));
+    }
+
+    @Test
+    void testFindAllByIdKeepsOrder() {
+        Item item1 = new Item(1L, "Item1", "Description1", null, "item1@example.com");
+        Item item2 = new Item(2L, "Item2", "Description2", null, "item2@example.com");
+
+        when(itemRepository.findAllById(List.of(2L, 1L, 3L))).thenReturn(Arrays.asList(item1, item2));
+
+        assertEquals(List.of(item2, item1), itemService.findAllById(List.of(2L, 1L, 3L)));
+    }
+
+    @Test
+    void testMarkAllProcessedUpdatesSlices() {
+        itemService.processingProperties.setBulkSliceSize(50_000);
+        when(itemRepository.findMinId()).thenReturn(1L);
+        when(itemRepository.findMaxId()).thenReturn(120_000L);
+        when(itemRepository.markProcessedInRange(1L, 50_000L)).thenReturn(50_000);
+        when(itemRepository.markProcessedInRange(50_001L, 100_000L)).thenReturn(49_000);
+        when(itemRepository.markProcessedInRange(100_001L, 120_000L)).thenReturn(20_000);
+
+        long updated = itemService.markAllProcessed();
+
+        assertEquals(119_000, updated);
+        verify(itemRepository, times(3)).markProcessedInRange(anyLong(), anyLong());
+        verify(itemRepository, never()).findAllById(any());
+        verify(itemCache).clear();
+    }
+
+    @Test
+    void testMarkAllProcessedClearsCacheWhenASliceFails() {
+        itemService.processingProperties.setBulkSliceSize(50_000);
+        when(itemRepository.findMinId()).thenReturn(1L);
+        when(itemRepository.findMaxId()).thenReturn(120_000L);
+        when(itemRepository.markProcessedInRange(1L, 50_000L)).thenReturn(50_000);
+        when(itemRepository.markProcessedInRange(50_001L, 100_000L)).thenThrow(new QueryTimeoutException("timeout"));
+        when(itemRepository.markProcessedInRange(100_001L, 120_000L)).thenReturn(20_000);
+
+        BulkProcessingException e = assertThrows(BulkProcessingException.class, () -> itemService.markAllProcessed());
+
+        assertEquals(70_000, e.getProcessed());
+        assertInstanceOf(QueryTimeoutException.class, e.getCause());
+        verify(itemRepository, times(3)).markProcessedInRange(anyLong(), anyLong());
+        verify(itemCache).clear();
+    }
+
+    @Test
+    void testMarkAllProcessedOnEmptyTable() {
+        when(itemRepository.findMinId()).thenReturn(null);
+
+        assertEquals(0, itemService.markAllProcessed());
+        verify(itemRepository, never()).markProcessedInRange(anyLong(), anyLong());
     }
 
     @Test
     void testProcessItemsAsyncWithException() {
         // Mock repository behavior
-        when(itemRepository.findAll()).thenThrow(new RuntimeException("Database error"));
+        when(itemRepository.findUnprocessedIdsInRange(anyLong(), anyLong(), any(Pageable.class)))
+                .thenThrow(new RuntimeException("Database error"));
 
         assertThrows(RuntimeException.class, () -> itemService.processItemsAsync().get());
-        verify(itemRepository, times(1)).findAll();
+        verify(itemRepository, times(1)).findUnprocessedIdsInRange(anyLong(), anyLong(), any(Pageable.class));
     }
-}
\ No newline at end of file
+}
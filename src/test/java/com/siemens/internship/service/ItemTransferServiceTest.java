@@ -0,0 +1,146 @@
+package com.siemens.internship.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.siemens.internship.dto.TransferResult;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.repository.ItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:transfer")
+class ItemTransferServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Autowired
+    private ItemTransferService itemTransferService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @BeforeEach
+    void setUp() {
+        itemRepository.deleteAll();
+        itemRepository.saveAll(List.of(
+                new Item(null, "Item1", "Plain", null, "item1@example.com"),
+                new Item(null, "Item2", "With, comma and \"quotes\"", "PROCESSED", "item2@example.com"),
+                new Item(null, "Item3", null, "PENDING", "item3@example.com")
+        ));
+    }
+
+    @Test
+    void testNdjsonRoundTrip() throws Exception {
+        assertRoundTrip(tempDir.resolve("items.ndjson"));
+        assertEquals(3, Files.readAllLines(tempDir.resolve("items.ndjson")).size());
+    }
+
+    @Test
+    void testCsvRoundTrip() throws Exception {
+        assertRoundTrip(tempDir.resolve("items.csv"));
+        // Header row plus one row per item
+        assertTrue(Files.readString(tempDir.resolve("items.csv")).startsWith("id,name,description,status,email,version,"));
+    }
+
+    @Test
+    void testNdjsonRestoreKeepsIdsVersionsAndTimestamps() throws Exception {
+        assertRestore(tempDir.resolve("backup.ndjson"));
+    }
+
+    @Test
+    void testCsvRestoreKeepsIdsVersionsAndTimestamps() throws Exception {
+        assertRestore(tempDir.resolve("backup.csv"));
+    }
+
+    @Test
+    void testRestoreSkipsExistingItems() throws Exception {
+        Path file = tempDir.resolve("backup.ndjson");
+        itemTransferService.exportTo(file);
+
+        assertEquals(new TransferResult(0, 3), itemTransferService.restoreFrom(file));
+        assertEquals(3, itemRepository.count());
+    }
+
+    @Test
+    void testInvalidRecordsAreSkipped() throws Exception {
+        Path file = tempDir.resolve("import.csv");
+        Files.writeString(file, "email,name\nnew1@example.com,New1\nnot-an-email,New2\nnew3@example.com,\n");
+        itemRepository.deleteAll();
+
+        TransferResult result = itemTransferService.importFrom(file);
+
+        assertEquals(new TransferResult(1, 2), result);
+        assertEquals(List.of("New1"), itemRepository.findAll().stream().map(Item::getName).toList());
+    }
+
+    @Test
+    void testMalformedFileKeepsWrittenChunks() throws Exception {
+        Path file = tempDir.resolve("import.ndjson");
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < ItemTransferService.IMPORT_CHUNK_SIZE; i++) {
+            content.append("{\"name\":\"New").append(i).append("\",\"email\":\"new").append(i).append("@example.com\"}\n");
+        }
+        Files.writeString(file, content.append("{\"name\":\n"));
+        itemRepository.deleteAll();
+
+        assertThrows(JsonProcessingException.class, () -> itemTransferService.importFrom(file));
+        assertEquals(ItemTransferService.IMPORT_CHUNK_SIZE, itemRepository.count());
+    }
+
+    private void assertRoundTrip(Path file) throws Exception {
+        List<Item> exported = sorted(itemRepository.findAll());
+
+        assertEquals(new TransferResult(3, 0), itemTransferService.exportTo(file));
+        itemRepository.deleteAll();
+        assertEquals(new TransferResult(3, 0), itemTransferService.importFrom(file));
+
+        List<Item> imported = sorted(itemRepository.findAll());
+        assertEquals(exported.size(), imported.size());
+        for (int i = 0; i < exported.size(); i++) {
+            assertEquals(exported.get(i).getName(), imported.get(i).getName());
+            assertEquals(exported.get(i).getDescription(), imported.get(i).getDescription());
+            assertEquals(exported.get(i).getStatus(), imported.get(i).getStatus());
+            assertEquals(exported.get(i).getEmail(), imported.get(i).getEmail());
+        }
+        assertFalse(Files.exists(file.resolveSibling(file.getFileName() + ".partial")));
+    }
+
+    private void assertRestore(Path file) throws Exception {
+        Item updated = itemRepository.findAll().get(0);
+        updated.setDescription("Updated");
+        itemRepository.save(updated);
+        List<Item> exported = sorted(itemRepository.findAll());
+
+        itemTransferService.exportTo(file);
+        itemRepository.deleteAll();
+        assertEquals(new TransferResult(3, 0), itemTransferService.restoreFrom(file));
+
+        List<Item> restored = sorted(itemRepository.findAll());
+        for (int i = 0; i < exported.size(); i++) {
+            assertEquals(exported.get(i).getId(), restored.get(i).getId());
+            assertEquals(exported.get(i).getName(), restored.get(i).getName());
+            assertEquals(exported.get(i).getDescription(), restored.get(i).getDescription());
+            assertEquals(exported.get(i).getVersion(), restored.get(i).getVersion());
+            assertEquals(exported.get(i).getCreatedAt(), restored.get(i).getCreatedAt());
+            assertEquals(exported.get(i).getUpdatedAt(), restored.get(i).getUpdatedAt());
+        }
+        assertTrue(restored.stream().anyMatch(item -> item.getVersion() == 1L));
+        // New items get ids past the restored ones
+        long maxId = restored.stream().mapToLong(Item::getId).max().orElseThrow();
+        assertTrue(itemRepository.save(new Item(null, "New", null, null, "new@example.com")).getId() > maxId);
+    }
+
+    private static List<Item> sorted(List<Item> items) {
+        return items.stream().sorted(Comparator.comparing(Item::getName)).toList();
+    }
+}
@@ -0,0 +1,182 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.InternshipApplication;
+import com.siemens.internship.dto.ProcessingSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Two application instances sharing one database, as several nodes of the service would
+class PartitionedProcessingTest {
+    private static final int ITEMS = 3000;
+
+    private static ConfigurableApplicationContext first;
+    private static ConfigurableApplicationContext second;
+
+    @BeforeAll
+    static void startInstances() {
+        first = startInstance();
+        second = startInstance();
+    }
+
+    @AfterAll
+    static void stopInstances() {
+        second.close();
+        first.close();
+    }
+
+    private static ConfigurableApplicationContext startInstance() {
+        return new SpringApplicationBuilder(InternshipApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:partitioned;DB_CLOSE_DELAY=-1",
+                        "--items.processing.partitioning.enabled=true",
+                        "--items.processing.partitioning.partition-size=100",
+                        "--items.processing.chunk-size=20");
+    }
+
+    @BeforeEach
+    void seed() {
+        JdbcTemplate jdbc = first.getBean(JdbcTemplate.class);
+        jdbc.update("delete from processing_lease");
+        jdbc.update("delete from item");
+        jdbc.update("insert into item (id, name, description, status, email, version, created_at, updated_at) " +
+                "select x, 'Item' || x, 'Description' || x, null, 'item' || x || '@example.com', 0, " +
+                "current_timestamp, current_timestamp from system_range(1, ?)", ITEMS);
+    }
+
+    @Test
+    void testConcurrentRunsDivideTheTable() throws Exception {
+        CyclicBarrier start = new CyclicBarrier(2);
+        CompletableFuture<ProcessingSummary> firstRun = CompletableFuture.supplyAsync(() -> run(first, start));
+        CompletableFuture<ProcessingSummary> secondRun = CompletableFuture.supplyAsync(() -> run(second, start));
+
+        assertDivided(firstRun.get(), secondRun.get());
+    }
+
+    @Test
+    void testConcurrentRunsOnOneInstanceDivideTheTable() throws Exception {
+        CyclicBarrier start = new CyclicBarrier(2);
+        CompletableFuture<ProcessingSummary> firstRun = CompletableFuture.supplyAsync(() -> run(first, start));
+        CompletableFuture<ProcessingSummary> secondRun = CompletableFuture.supplyAsync(() -> run(first, start));
+
+        assertDivided(firstRun.get(), secondRun.get());
+    }
+
+    @Test
+    void testFullRunTakesOverWhatANarrowerJobLeaves() throws Exception {
+        CyclicBarrier start = new CyclicBarrier(2);
+        // The narrow job covers part of partition 1 (ids 101 to 200) only
+        CompletableFuture<ProcessingSummary> narrow = CompletableFuture.supplyAsync(() -> run(second, start, 140L, 160L));
+        CompletableFuture<ProcessingSummary> full = CompletableFuture.supplyAsync(() -> run(first, start, 0L, Long.MAX_VALUE));
+
+        assertEquals(ITEMS, narrow.get().processed() + full.get().processed());
+        assertEquals(ITEMS, processedRows());
+    }
+
+    @Test
+    void testPartitionHeldByAnotherRunIsTakenOverWhenReleased() throws Exception {
+        ProcessingLeaseService leases = second.getBean(ProcessingLeaseService.class);
+        String narrowJob = leases.newOwner();
+        assertTrue(leases.tryClaim(narrowJob, 1));
+
+        CompletableFuture<ProcessingSummary> full = CompletableFuture.supplyAsync(() -> run(first, null, 0L, Long.MAX_VALUE));
+        // The full run finishes every other partition, then waits for partition 1
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (processedRows() < ITEMS - 100 && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(ITEMS - 100, processedRows());
+        assertFalse(full.isDone());
+
+        // The narrow job processes ids 141 to 160 and lets go
+        first.getBean(JdbcTemplate.class).update("update item set status = 'PROCESSED' where id > 140 and id <= 160");
+        leases.release(narrowJob, List.of(1L));
+
+        assertEquals(ITEMS - 20, full.get(30, TimeUnit.SECONDS).processed());
+        assertEquals(ITEMS, processedRows());
+    }
+
+    private static int processedRows() {
+        return first.getBean(JdbcTemplate.class)
+                .queryForObject("select count(*) from item where status = 'PROCESSED'", Integer.class);
+    }
+
+    // Every item was processed by exactly one of the runs, and both took a share
+    private static void assertDivided(ProcessingSummary firstSummary, ProcessingSummary secondSummary) {
+        assertTrue(firstSummary.processed() > 0);
+        assertTrue(secondSummary.processed() > 0);
+        assertEquals(ITEMS, firstSummary.processed() + secondSummary.processed());
+        Set<Long> ids = LongStream.concat(Arrays.stream(firstSummary.processedIds()), Arrays.stream(secondSummary.processedIds()))
+                .boxed().collect(Collectors.toSet());
+        assertEquals(ITEMS, ids.size());
+        assertEquals(0, first.getBean(MeterRegistry.class).counter(ItemService.CONFLICT_METRIC).count());
+        assertEquals(0, second.getBean(MeterRegistry.class).counter(ItemService.CONFLICT_METRIC).count());
+        assertEquals(ITEMS, processedRows());
+    }
+
+    @Test
+    void testLeaseIsExclusiveUntilReleased() {
+        ProcessingLeaseService firstLeases = first.getBean(ProcessingLeaseService.class);
+        ProcessingLeaseService secondLeases = second.getBean(ProcessingLeaseService.class);
+        String firstOwner = firstLeases.newOwner();
+        String secondOwner = secondLeases.newOwner();
+
+        assertTrue(firstLeases.tryClaim(firstOwner, 7));
+        assertFalse(secondLeases.tryClaim(secondOwner, 7));
+        // Renewing a lease that is held already
+        assertTrue(firstLeases.tryClaim(firstOwner, 7));
+
+        firstLeases.release(firstOwner, List.of(7L));
+
+        assertTrue(secondLeases.tryClaim(secondOwner, 7));
+        assertFalse(firstLeases.tryClaim(firstOwner, 7));
+    }
+
+    @Test
+    void testRunsOnOneInstanceDoNotShareLeases() {
+        ProcessingLeaseService leases = first.getBean(ProcessingLeaseService.class);
+        String firstRun = leases.newOwner();
+        String secondRun = leases.newOwner();
+
+        assertTrue(leases.tryClaim(firstRun, 7));
+        assertFalse(leases.tryClaim(secondRun, 7));
+
+        // A run only gives back its own leases
+        leases.release(secondRun, List.of(7L));
+
+        assertFalse(leases.tryClaim(secondRun, 7));
+        assertTrue(leases.tryClaim(firstRun, 7));
+    }
+
+    private static ProcessingSummary run(ConfigurableApplicationContext instance, CyclicBarrier start) {
+        return run(instance, start, 0L, Long.MAX_VALUE);
+    }
+
+    private static ProcessingSummary run(ConfigurableApplicationContext instance, CyclicBarrier start, long afterId, long toId) {
+        try {
+            if (start != null) {
+                start.await();
+            }
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return instance.getBean(ItemService.class).processRangeSummary(afterId, toId, ProcessingListener.NONE).join();
+    }
+}
@@ -0,0 +1,34 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.model.Item;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProcessedIdsTest {
+
+    @Test
+    void testPagesAcrossChunks() {
+        ProcessedIds ids = new ProcessedIds();
+        ids.add(items(1, 3));
+        ids.add(List.of());
+        ids.add(items(4, 5));
+        ids.add(items(6, 9));
+
+        assertEquals(9, ids.size());
+        assertEquals(List.of(1L, 2L), ids.get(0, 2));
+        assertEquals(List.of(3L, 4L, 5L, 6L), ids.get(2, 4));
+        assertEquals(List.of(9L), ids.get(8, 10));
+        assertEquals(List.of(), ids.get(9, 10));
+        assertArrayEquals(LongStream.rangeClosed(1, 9).toArray(), ids.toArray());
+    }
+
+    private static List<Item> items(long from, long to) {
+        return LongStream.rangeClosed(from, to)
+                .mapToObj(id -> new Item(id, "Item" + id, null, null, "item" + id + "@example.com"))
+                .toList();
+    }
+}
@@ -0,0 +1,120 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.dto.ProcessingJobResults;
+import com.siemens.internship.dto.ProcessingSummary;
+import com.siemens.internship.model.Item;
+import com.siemens.internship.repository.ItemRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ProcessingJobServiceTest {
+
+    @Mock
+    private ItemService itemService;
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @InjectMocks
+    private ProcessingJobService processingJobService;
+
+    // Jobs submitted to the executor; they are run explicitly by the tests
+    private final List<Runnable> submitted = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        processingJobService.jobExecutor = submitted::add;
+    }
+
+    @Test
+    void testStartRunsJobInBackground() {
+        Item item = new Item(2L, "Item2", "Description2", "PROCESSED", "item2@example.com");
+        when(itemRepository.countUnprocessedInRange(1L, 10L)).thenReturn(1L);
+        when(itemService.processRangeSummary(eq(0L), eq(10L), any())).thenAnswer(invocation -> {
+            invocation.<ProcessingListener>getArgument(2).chunkProcessed(List.of(item), 0);
+            return CompletableFuture.completedFuture(new ProcessingSummary(1, 0, 0, new long[]{2L}));
+        });
+
+        ProcessingJob job = processingJobService.start(1L, 10L).orElseThrow();
+        assertEquals(ProcessingJob.State.PENDING, job.getState());
+
+        submitted.forEach(Runnable::run);
+
+        assertEquals(ProcessingJob.State.COMPLETED, job.getState());
+        assertEquals(1, job.toStatus().processed());
+        assertEquals(0, job.toStatus().remaining());
+        assertEquals(Optional.of(job), processingJobService.find(job.getId()));
+    }
+
+    @Test
+    void testOverlappingSliceIsRejected() {
+        assertTrue(processingJobService.start(1L, 100L).isPresent());
+
+        assertTrue(processingJobService.start(50L, 150L).isEmpty());
+        assertTrue(processingJobService.start(101L, 200L).isPresent());
+    }
+
+    @Test
+    void testSliceIsFreeAfterJobFinished() {
+        when(itemService.processRangeSummary(anyLong(), anyLong(), any()))
+                .thenReturn(CompletableFuture.completedFuture(new ProcessingSummary(0, 0, 0, new long[0])));
+
+        processingJobService.start(1L, 100L);
+        submitted.forEach(Runnable::run);
+
+        assertTrue(processingJobService.start(1L, 100L).isPresent());
+    }
+
+    @Test
+    void testCancel() {
+        when(itemService.processRangeSummary(anyLong(), anyLong(), any()))
+                .thenReturn(CompletableFuture.completedFuture(new ProcessingSummary(0, 0, 0, new long[0])));
+
+        ProcessingJob job = processingJobService.start(1L, 100L).orElseThrow();
+        processingJobService.cancel(job.getId());
+        submitted.forEach(Runnable::run);
+
+        assertTrue(job.isCancelled());
+        assertEquals(ProcessingJob.State.CANCELLED, job.getState());
+    }
+
+    @Test
+    void testFailedJob() {
+        when(itemRepository.countUnprocessedInRange(anyLong(), anyLong())).thenThrow(new RuntimeException("Database error"));
+
+        ProcessingJob job = processingJobService.start(1L, 100L).orElseThrow();
+        submitted.forEach(Runnable::run);
+
+        assertEquals(ProcessingJob.State.FAILED, job.getState());
+        assertEquals("Database error", job.getError());
+    }
+
+    @Test
+    void testResultsArePaged() {
+        ProcessingJob job = new ProcessingJob("job", 1L, 10L);
+        List<Item> items = List.of(
+                new Item(1L, "Item1", "Description1", "PROCESSED", "item1@example.com"),
+                new Item(2L, "Item2", "Description2", "PROCESSED", "item2@example.com"),
+                new Item(3L, "Item3", "Description3", "PROCESSED", "item3@example.com"));
+        job.chunkProcessed(items, 0);
+        when(itemService.findAllById(List.of(3L))).thenReturn(List.of(items.get(2)));
+
+        ProcessingJobResults results = processingJobService.results(job, 1, 2);
+
+        assertEquals(3, results.totalElements());
+        assertEquals(List.of(items.get(2)), results.items());
+    }
+}
@@ -0,0 +1,193 @@
+package com.siemens.internship.service;
+
+import com.siemens.internship.model.Item;
+import com.siemens.internship.repository.ItemRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Flushes are triggered by the tests: the flush interval is longer than any test and the batch size is never reached
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:write-behind",
+        "items.write-behind.enabled=true",
+        "items.write-behind.flush-interval=PT1H"
+})
+class WriteBehindBufferTest {
+
+    @TempDir
+    static Path tempDir;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private ItemBatchService itemBatchService;
+
+    @Autowired
+    private WriteBehindBuffer writeBehindBuffer;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Item item;
+
+    @DynamicPropertySource
+    static void spillFile(DynamicPropertyRegistry registry) {
+        registry.add("items.write-behind.spill-file", () -> tempDir.resolve("spill.ndjson").toString());
+    }
+
+    @BeforeEach
+    void setUp() {
+        item = itemRepository.save(new Item(null, "Item1", "Description1", null, "item1@example.com"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        writeBehindBuffer.flush();
+        itemRepository.deleteAll();
+    }
+
+    @Test
+    void testUpdatesAreCoalescedAndWrittenOnFlush() {
+        double flushed = meterRegistry.counter(WriteBehindBuffer.FLUSHED_METRIC).count();
+        Item saved = null;
+        for (int i = 1; i <= 3; i++) {
+            saved = itemService.save(update("Update" + i, item.getVersion() + i - 1));
+        }
+
+        assertEquals(3L, saved.getVersion());
+        assertEquals(1, writeBehindBuffer.pendingCount());
+        // Read-your-writes through findById, while the row is untouched
+        assertEquals("Update3", itemService.findById(item.getId()).orElseThrow().getName());
+        assertEquals(Map.of("NAME", "Item1", "VERSION", 0L), row());
+
+        writeBehindBuffer.flush();
+
+        assertEquals(0, writeBehindBuffer.pendingCount());
+        assertEquals(Map.of("NAME", "Update3", "VERSION", 3L), row());
+        assertEquals(flushed + 1, meterRegistry.counter(WriteBehindBuffer.FLUSHED_METRIC).count());
+    }
+
+    @Test
+    void testStaleVersionIsRejected() {
+        itemService.save(update("Update1", 0L));
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> itemService.save(update("Update2", 0L)));
+        assertEquals("Update1", itemService.findById(item.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void testStaleVersionOfUnbufferedItemIsRejected() {
+        jdbcTemplate.update("update item set version = 2 where id = ?", item.getId());
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> itemService.save(update("Update1", 0L)));
+        assertEquals(0, writeBehindBuffer.pendingCount());
+    }
+
+    @Test
+    void testBufferedUpdateSurvivesMarkAllProcessed() {
+        itemService.save(update("Update1", 0L));
+
+        assertEquals(1L, itemService.markAllProcessed());
+        writeBehindBuffer.flush();
+
+        // Both the acknowledged update and the processing are kept
+        assertEquals(Map.of("NAME", "Update1", "STATUS", "PROCESSED", "VERSION", 2L), rowWithStatus());
+        assertEquals(0, writeBehindBuffer.pendingCount());
+    }
+
+    @Test
+    void testBufferedUpdateSurvivesProcessingRun() {
+        double conflicts = meterRegistry.counter(WriteBehindBuffer.CONFLICT_METRIC).count();
+        itemService.save(update("Update1", 0L));
+
+        assertEquals(1, itemService.processRangeSummary(0L, Long.MAX_VALUE, ProcessingListener.NONE).join().processed());
+        writeBehindBuffer.flush();
+
+        assertEquals(Map.of("NAME", "Update1", "STATUS", "PROCESSED", "VERSION", 2L), rowWithStatus());
+        assertEquals(conflicts, meterRegistry.counter(WriteBehindBuffer.CONFLICT_METRIC).count());
+    }
+
+    @Test
+    void testBufferedUpdateSurvivesBatchUpdate() {
+        itemService.save(update("Update1", 0L));
+
+        // The client saw version 1 from the buffer
+        assertEquals(1, itemBatchService.updateAll(List.of(update("Batch", 1L))).succeeded());
+
+        assertEquals(Map.of("NAME", "Batch", "VERSION", 2L), row());
+    }
+
+    @Test
+    void testExternalWriteWinsOverBufferedUpdate() {
+        double conflicts = meterRegistry.counter(WriteBehindBuffer.CONFLICT_METRIC).count();
+        double dropped = meterRegistry.counter(WriteBehindBuffer.DROPPED_METRIC).count();
+        itemService.save(update("Update1", 0L));
+        jdbcTemplate.update("update item set name = 'External', version = version + 1 where id = ?", item.getId());
+
+        writeBehindBuffer.flush();
+
+        assertEquals(Map.of("NAME", "External", "VERSION", 1L), row());
+        assertEquals("External", itemService.findById(item.getId()).orElseThrow().getName());
+        assertEquals(conflicts + 1, meterRegistry.counter(WriteBehindBuffer.CONFLICT_METRIC).count());
+        assertEquals(dropped, meterRegistry.counter(WriteBehindBuffer.DROPPED_METRIC).count());
+    }
+
+    @Test
+    void testDeleteWritesBufferedUpdateFirst() {
+        itemService.save(update("Update1", 0L));
+
+        // The client saw version 1 from the buffer; the row only gets it once the update is written
+        itemService.deleteById(item.getId(), 1L);
+
+        assertTrue(itemRepository.findById(item.getId()).isEmpty());
+        assertEquals(0, writeBehindBuffer.pendingCount());
+    }
+
+    @Test
+    void testSpilledUpdatesAreReplayed() {
+        itemService.save(update("Update1", 0L));
+        writeBehindBuffer.spill();
+        // As if the spilled update had never reached the database
+        writeBehindBuffer.flush();
+        jdbcTemplate.update("update item set version = 0, name = 'Item1'");
+
+        writeBehindBuffer.replaySpillFile();
+
+        assertEquals(Map.of("NAME", "Update1", "VERSION", 1L), row());
+        assertFalse(Files.exists(tempDir.resolve("spill.ndjson")));
+    }
+
+    private Item update(String name, long version) {
+        return new Item(item.getId(), name, "Description1", null, "item1@example.com", version);
+    }
+
+    private Map<String, Object> rowWithStatus() {
+        return jdbcTemplate.queryForMap("select name, status, version from item where id = ?", item.getId());
+    }
+
+    private Map<String, Object> row() {
+        return jdbcTemplate.queryForMap("select name, version from item where id = ?", item.getId());
+    }
+}